@@ -0,0 +1,68 @@
+// Monomorphic fast path for calling behaviours.
+//
+// 'getFlyBehaviour().fly()' in Duck.performFly() is ONE call site shared by every
+// duck. Once it has seen three or more behaviour classes, the JIT gives up
+// inlining it and does a full interface dispatch on every call (the site is
+// "megamorphic").
+//
+// Here every known behaviour gets its own call site behind an 'instanceof'
+// check. The behaviour classes are final, so each check is a single class
+// pointer compare, and each call site only ever sees ONE class, so the JIT can
+// inline it. Unknown behaviours fall back to the normal interface call.
+//
+// The "kind" methods number the known classes; Flock uses them to group
+// ducks so that the branches below are also well predicted.
+public final class BehaviourDispatch {
+    public static final int OTHER = 3;   // kind of any behaviour not listed below
+    public static final int KINDS = 4;
+
+    private BehaviourDispatch() {
+    }
+
+    public static void fly(FlyBehaviour fb) {
+        if (fb instanceof FlyWithWings) {
+            ((FlyWithWings) fb).fly();
+        } else if (fb instanceof FlyNoWay) {
+            ((FlyNoWay) fb).fly();
+        } else if (fb instanceof FlyRocketPowered) {
+            ((FlyRocketPowered) fb).fly();
+        } else {
+            fb.fly();
+        }
+    }
+
+    public static void quack(QuackBehaviour qb) {
+        if (qb instanceof Quack) {
+            ((Quack) qb).quack();
+        } else if (qb instanceof MuteQuack) {
+            ((MuteQuack) qb).quack();
+        } else if (qb instanceof SqueakQuack) {
+            ((SqueakQuack) qb).quack();
+        } else {
+            qb.quack();
+        }
+    }
+
+    // 0..2 for the known fly behaviours, OTHER for anything else.
+    public static int flyKind(FlyBehaviour fb) {
+        if (fb instanceof FlyWithWings) {
+            return 0;
+        } else if (fb instanceof FlyNoWay) {
+            return 1;
+        } else if (fb instanceof FlyRocketPowered) {
+            return 2;
+        }
+        return OTHER;
+    }
+
+    public static int quackKind(QuackBehaviour qb) {
+        if (qb instanceof Quack) {
+            return 0;
+        } else if (qb instanceof MuteQuack) {
+            return 1;
+        } else if (qb instanceof SqueakQuack) {
+            return 2;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,44 @@
+// Heap retained per duck with and without shared behaviours:
+//   - fresh:  every duck gets its own behaviour objects and BehaviourSet (how
+//             the MallardDuck/ModelDuck constructors used to work);
+//   - shared: the current constructors, using BehaviourRegistry.
+// Retained heap is measured after a GC, with the ducks still reachable.
+//
+// Run with: java BehaviourFootprintBenchmark [ducks]
+public class BehaviourFootprintBenchmark {
+    // Keeps the ducks being measured reachable (the JIT may treat an unused local as dead).
+    private static Duck[] retained;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        long before = usedHeap();
+        retained = new Duck[count];
+        for (int i = 0; i < count; i++) {
+            Duck duck = i % 2 == 0 ? new MallardDuck() : new ModelDuck();
+            duck.setBehaviours(new BehaviourSet(i % 2 == 0 ? new FlyWithWings() : new FlyNoWay(), new Quack(), 0));
+            retained[i] = duck;
+        }
+        long freshBytes = usedHeap() - before;
+        retained = null;
+
+        before = usedHeap();
+        retained = new Duck[count];
+        for (int i = 0; i < count; i++) {
+            retained[i] = i % 2 == 0 ? new MallardDuck() : new ModelDuck();
+        }
+        long sharedBytes = usedHeap() - before;
+
+        System.out.printf("fresh behaviours:  %5.1f bytes/duck%n", (double) freshBytes / count);
+        System.out.printf("shared behaviours: %5.1f bytes/duck (%.1fx smaller)%n",
+                (double) sharedBytes / count, (double) freshBytes / sharedBytes);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
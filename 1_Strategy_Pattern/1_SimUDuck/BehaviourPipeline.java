@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Several behaviours run as one, e.g. "rate-limited quack, then a log line":
+//
+//   QuackBehaviour quack = BehaviourPipeline.builder()
+//           .gate(new RateLimitGate(1_000_000_000L))
+//           .quack(BehaviourRegistry.QUACK)
+//           .log("(quacked)")
+//           .build();
+//   duck.setQuackBehaviour(quack);
+//
+// A pipeline is both a FlyBehaviour and a QuackBehaviour, so a Duck takes it
+// like any other strategy.
+//
+// The alternative -- wrappers nested inside wrappers -- makes every call
+// recurse through one virtual call per layer. Here all stages are LINKED ONCE,
+// at build time, into flat arrays; a nested pipeline is flattened into its
+// parent. Running it is one loop with no allocation.
+//
+// Each stage is stored as an op code plus its operand, and the loop handles
+// fly, quack and log stages itself (through BehaviourDispatch for the
+// behaviours). A single 'stage.run()' call site for every kind of stage would
+// be megamorphic; this way only custom stages and gates go through it.
+//
+// A stage that returns false stops its OWN pipeline. For a flattened nested
+// pipeline that means "skip to the stage after it", so each stage also
+// records where to continue when it fails (-1: stop everything).
+public final class BehaviourPipeline implements FlyBehaviour, QuackBehaviour, PipelineStage {
+    private static final byte STAGE = 0; // operand: PipelineStage
+    private static final byte FLY = 1;   // operand: FlyBehaviour
+    private static final byte QUACK = 2; // operand: QuackBehaviour
+    private static final byte LOG = 3;   // operand: String
+
+    private final byte[] ops;
+    private final Object[] operands;
+    private final int[] onFailure;
+
+    private BehaviourPipeline(byte[] ops, Object[] operands, int[] onFailure) {
+        this.ops = ops;
+        this.operands = operands;
+        this.onFailure = onFailure;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void fly() {
+        run();
+    }
+
+    public void quack() {
+        run();
+    }
+
+    // Runs the stages in order until one of its own stages returns false.
+    // Returns true if it got to the end.
+    public boolean run() {
+        byte[] op = ops;
+        Object[] operand = operands;
+        int i = 0;
+        while (i < op.length) {
+            byte o = op[i];
+            if (o == LOG) {
+                DuckOutput.emit((String) operand[i]);
+                i++;
+            } else if (o == QUACK) {
+                BehaviourDispatch.quack((QuackBehaviour) operand[i]);
+                i++;
+            } else if (o == FLY) {
+                BehaviourDispatch.fly((FlyBehaviour) operand[i]);
+                i++;
+            } else if (((PipelineStage) operand[i]).run()) {
+                i++;
+            } else if ((i = onFailure[i]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getStageCount() {
+        return ops.length;
+    }
+
+    public static final class Builder {
+        private final List<Byte> ops = new ArrayList<Byte>();
+        private final List<Object> operands = new ArrayList<Object>();
+        private final List<Integer> onFailure = new ArrayList<Integer>();
+
+        private Builder() {
+        }
+
+        public Builder stage(PipelineStage stage) {
+            if (stage instanceof BehaviourPipeline) {
+                return inline((BehaviourPipeline) stage, true);
+            }
+            return add(STAGE, stage);
+        }
+
+        // Stops the pipeline when 'gate' returns false.
+        public Builder gate(PipelineStage gate) {
+            return stage(gate);
+        }
+
+        public Builder fly(FlyBehaviour fb) {
+            if (fb instanceof BehaviourPipeline) {
+                return inline((BehaviourPipeline) fb, false);
+            }
+            return add(FLY, fb);
+        }
+
+        public Builder quack(QuackBehaviour qb) {
+            if (qb instanceof BehaviourPipeline) {
+                return inline((BehaviourPipeline) qb, false);
+            }
+            return add(QUACK, qb);
+        }
+
+        public Builder log(String line) {
+            return add(LOG, line);
+        }
+
+        public BehaviourPipeline build() {
+            byte[] op = new byte[ops.size()];
+            int[] skip = new int[ops.size()];
+            for (int i = 0; i < op.length; i++) {
+                op[i] = ops.get(i);
+                skip[i] = onFailure.get(i);
+            }
+            return new BehaviourPipeline(op, operands.toArray(), skip);
+        }
+
+        private Builder add(byte op, Object operand) {
+            ops.add(op);
+            operands.add(operand);
+            onFailure.add(-1);
+            return this;
+        }
+
+        // Copies a nested pipeline's stages. Used as a stage, its failure stops
+        // this pipeline too (run() returned false); used as a behaviour, it
+        // only skips to just after the nested stages.
+        private Builder inline(BehaviourPipeline pipeline, boolean failureStopsParent) {
+            int base = ops.size();
+            int end = failureStopsParent ? -1 : base + pipeline.ops.length;
+            for (int i = 0; i < pipeline.ops.length; i++) {
+                ops.add(pipeline.ops[i]);
+                operands.add(pipeline.operands[i]);
+                int target = pipeline.onFailure[i];
+                onFailure.add(target < 0 ? end : base + target);
+            }
+            return this;
+        }
+    }
+}
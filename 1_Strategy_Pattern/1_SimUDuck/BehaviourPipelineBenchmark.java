@@ -0,0 +1,148 @@
+import java.util.Random;
+
+// Cost per call of behaviour chains with 2 to 16 stages, built two ways:
+//   - nested:   wrappers around wrappers, e.g. Gated(Logged(Counted(Quack)));
+//   - pipeline: the same stages linked into one flat BehaviourPipeline.
+// A flock holds 256 different chains: a random mix of log, gate (always open)
+// and counter stages, ending with Quack. Calls cycle through the flock, as a
+// simulation tick would, so the wrappers' 'inner.quack()' call sites see many
+// classes -- the realistic case. Output goes to NoOpSink, so we time the
+// chaining rather than the console.
+//
+// Run with: java BehaviourPipelineBenchmark [calls]
+public class BehaviourPipelineBenchmark {
+    private static final int CHAINS = 256;
+    private static final PipelineStage OPEN = () -> true;
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        EventSink previous = DuckOutput.setSink(NoOpSink.INSTANCE);
+        int[] depths = {2, 4, 8, 16};
+        long[][] best = new long[depths.length][2];
+        for (int round = 0; round < 5; round++) {
+            for (int d = 0; d < depths.length; d++) {
+                QuackBehaviour[] nested = new QuackBehaviour[CHAINS];
+                QuackBehaviour[] pipelines = new QuackBehaviour[CHAINS];
+                Random random = new Random(d);
+                for (int c = 0; c < CHAINS; c++) {
+                    int[] kinds = new int[depths[d] - 1];
+                    for (int k = 0; k < kinds.length; k++) {
+                        kinds[k] = random.nextInt(3);
+                    }
+                    nested[c] = nested(kinds);
+                    pipelines[c] = pipeline(kinds);
+                }
+                long nestedNanos = time(nested, calls);
+                long pipelineNanos = time(pipelines, calls);
+                best[d][0] = round == 0 ? nestedNanos : Math.min(best[d][0], nestedNanos);
+                best[d][1] = round == 0 ? pipelineNanos : Math.min(best[d][1], pipelineNanos);
+            }
+        }
+        DuckOutput.setSink(previous);
+        for (int d = 0; d < depths.length; d++) {
+            System.out.printf("%2d stages: nested %6.2f ns/call, pipeline %6.2f ns/call, speedup %.1fx%n",
+                    depths[d], (double) best[d][0] / calls, (double) best[d][1] / calls,
+                    (double) best[d][0] / best[d][1]);
+        }
+    }
+
+    // kinds[0] is the outermost stage: 0 = log, 1 = gate, 2 = counter.
+    private static QuackBehaviour nested(int[] kinds) {
+        QuackBehaviour quack = BehaviourRegistry.QUACK;
+        for (int k = kinds.length - 1; k >= 0; k--) {
+            switch (kinds[k]) {
+                case 0:
+                    quack = new LoggedQuack(quack, "log " + k);
+                    break;
+                case 1:
+                    quack = new GatedQuack(quack, OPEN);
+                    break;
+                default:
+                    quack = new CountedQuack(quack);
+                    break;
+            }
+        }
+        return quack;
+    }
+
+    private static QuackBehaviour pipeline(int[] kinds) {
+        BehaviourPipeline.Builder builder = BehaviourPipeline.builder();
+        for (int k = 0; k < kinds.length; k++) {
+            switch (kinds[k]) {
+                case 0:
+                    builder.log("log " + k);
+                    break;
+                case 1:
+                    builder.gate(OPEN);
+                    break;
+                default:
+                    builder.stage(new Counter());
+                    break;
+            }
+        }
+        return builder.quack(BehaviourRegistry.QUACK).build();
+    }
+
+    private static long time(QuackBehaviour[] flock, int calls) {
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            flock[i & (CHAINS - 1)].quack();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static final class Counter implements PipelineStage {
+        long count;
+
+        public boolean run() {
+            count++;
+            return true;
+        }
+    }
+
+    // The naive wrappers being compared against.
+    private static final class LoggedQuack implements QuackBehaviour {
+        private final QuackBehaviour inner;
+        private final String line;
+
+        LoggedQuack(QuackBehaviour inner, String line) {
+            this.inner = inner;
+            this.line = line;
+        }
+
+        public void quack() {
+            DuckOutput.emit(line);
+            inner.quack();
+        }
+    }
+
+    private static final class GatedQuack implements QuackBehaviour {
+        private final QuackBehaviour inner;
+        private final PipelineStage gate;
+
+        GatedQuack(QuackBehaviour inner, PipelineStage gate) {
+            this.inner = inner;
+            this.gate = gate;
+        }
+
+        public void quack() {
+            if (gate.run()) {
+                inner.quack();
+            }
+        }
+    }
+
+    private static final class CountedQuack implements QuackBehaviour {
+        private final QuackBehaviour inner;
+        private long count;
+
+        CountedQuack(QuackBehaviour inner) {
+            this.inner = inner;
+        }
+
+        public void quack() {
+            count++;
+            inner.quack();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import java.util.Arrays;
+
+// Shared instances of STATELESS behaviours.
+//
+// FlyWithWings, Quack, FlyNoWay, ... hold no state, so one instance of each
+// can serve every duck. Without this, each MallardDuck/ModelDuck allocated
+// its own behaviour objects: millions of identical objects for millions of
+// ducks.
+//
+// Behaviours can be looked up by name (e.g. from a config file) or by a small
+// integer id, and set(fly, quack) returns an interned BehaviourSet, so ducks
+// with the same behaviours share it too. Built-in behaviours have fixed ids
+// (their order below); register() appends more. Registered behaviours must be
+// stateless, since every duck will share them.
+//
+// Reads are lock-free: register() publishes new copies of the arrays.
+public final class BehaviourRegistry {
+    public static final FlyBehaviour FLY_WITH_WINGS = new FlyWithWings();
+    public static final FlyBehaviour FLY_NO_WAY = new FlyNoWay();
+    public static final FlyBehaviour FLY_ROCKET_POWERED = new FlyRocketPowered();
+
+    public static final QuackBehaviour QUACK = new Quack();
+    public static final QuackBehaviour MUTE_QUACK = new MuteQuack();
+    public static final QuackBehaviour SQUEAK_QUACK = new SqueakQuack();
+
+    private static volatile String[] flyNames = {"FlyWithWings", "FlyNoWay", "FlyRocketPowered"};
+    private static volatile FlyBehaviour[] flies = {FLY_WITH_WINGS, FLY_NO_WAY, FLY_ROCKET_POWERED};
+    private static volatile String[] quackNames = {"Quack", "MuteQuack", "SqueakQuack"};
+    private static volatile QuackBehaviour[] quacks = {QUACK, MUTE_QUACK, SQUEAK_QUACK};
+
+    // Interned sets, [flyId][quackId]. Filled lazily; a race only creates an
+    // equal set twice, which is harmless (BehaviourSet is immutable).
+    private static volatile BehaviourSet[][] sets = new BehaviourSet[3][3];
+
+    private BehaviourRegistry() {
+    }
+
+    public static FlyBehaviour fly(String name) {
+        return flies[indexOf(flyNames, name, "fly behaviour")];
+    }
+
+    public static QuackBehaviour quack(String name) {
+        return quacks[indexOf(quackNames, name, "quack behaviour")];
+    }
+
+    public static FlyBehaviour fly(int id) {
+        return flies[id];
+    }
+
+    public static QuackBehaviour quack(int id) {
+        return quacks[id];
+    }
+
+    // Id of a registered behaviour, or -1.
+    public static int flyId(FlyBehaviour fb) {
+        FlyBehaviour[] registered = flies;
+        for (int i = 0; i < registered.length; i++) {
+            if (registered[i] == fb) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int quackId(QuackBehaviour qb) {
+        QuackBehaviour[] registered = quacks;
+        for (int i = 0; i < registered.length; i++) {
+            if (registered[i] == qb) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The shared BehaviourSet for this pair (epoch 0). Unregistered behaviours
+    // get a fresh, unshared set.
+    public static BehaviourSet set(FlyBehaviour fb, QuackBehaviour qb) {
+        int flyId = flyId(fb);
+        int quackId = quackId(qb);
+        BehaviourSet[][] table = sets;
+        if (flyId < 0 || quackId < 0 || flyId >= table.length || quackId >= table[flyId].length) {
+            return new BehaviourSet(fb, qb, 0);
+        }
+        BehaviourSet set = table[flyId][quackId];
+        if (set == null) {
+            set = new BehaviourSet(fb, qb, 0);
+            table[flyId][quackId] = set;
+        }
+        return set;
+    }
+
+    // Returns the new behaviour's id.
+    public static synchronized int register(String name, FlyBehaviour fb) {
+        checkNew(flyNames, name);
+        flyNames = append(flyNames, name);
+        flies = append(flies, fb);
+        growSets();
+        return flies.length - 1;
+    }
+
+    public static synchronized int register(String name, QuackBehaviour qb) {
+        checkNew(quackNames, name);
+        quackNames = append(quackNames, name);
+        quacks = append(quacks, qb);
+        growSets();
+        return quacks.length - 1;
+    }
+
+    private static void growSets() {
+        BehaviourSet[][] grown = new BehaviourSet[flies.length][quacks.length];
+        for (int f = 0; f < sets.length; f++) {
+            System.arraycopy(sets[f], 0, grown[f], 0, sets[f].length);
+        }
+        sets = grown;
+    }
+
+    private static int indexOf(String[] names, String name, String what) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + what + " '" + name + "', expected one of " + Arrays.toString(names));
+    }
+
+    private static void checkNew(String[] names, String name) {
+        if (Arrays.asList(names).contains(name)) {
+            throw new IllegalArgumentException("'" + name + "' is already registered");
+        }
+    }
+
+    private static <T> T[] append(T[] array, T item) {
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = item;
+        return copy;
+    }
+}
@@ -0,0 +1,39 @@
+// The behaviours of one duck at one point in time: an IMMUTABLE pair of fly
+// and quack behaviour, plus the epoch (batch swap) it was published in.
+//
+// Because it never changes, a thread that reads a Duck's BehaviourSet always
+// sees a matching fly/quack pair, never one old and one new behaviour.
+public final class BehaviourSet {
+    static final BehaviourSet EMPTY = new BehaviourSet(null, null, 0);
+
+    private final FlyBehaviour flyBehaviour;
+    private final QuackBehaviour quackBehaviour;
+    private final long epoch;
+
+    public BehaviourSet(FlyBehaviour flyBehaviour, QuackBehaviour quackBehaviour, long epoch) {
+        this.flyBehaviour = flyBehaviour;
+        this.quackBehaviour = quackBehaviour;
+        this.epoch = epoch;
+    }
+
+    public FlyBehaviour getFlyBehaviour() {
+        return flyBehaviour;
+    }
+
+    public QuackBehaviour getQuackBehaviour() {
+        return quackBehaviour;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    // Outside of epoch swaps, shared behaviours give an interned set (see BehaviourRegistry).
+    public BehaviourSet withFlyBehaviour(FlyBehaviour fb) {
+        return epoch == 0 ? BehaviourRegistry.set(fb, quackBehaviour) : new BehaviourSet(fb, quackBehaviour, epoch);
+    }
+
+    public BehaviourSet withQuackBehaviour(QuackBehaviour qb) {
+        return epoch == 0 ? BehaviourRegistry.set(flyBehaviour, qb) : new BehaviourSet(flyBehaviour, qb, epoch);
+    }
+}
@@ -1,29 +1,77 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 public abstract class Duck {
-    FlyBehaviour flyBehaviour;
-    QuackBehaviour quackBehaviour;
+    // Both behaviours live in ONE immutable BehaviourSet, so they can be
+    // swapped from a control thread while worker threads call performFly():
+    //   - writers publish a new set with a release store (or a CAS, when
+    //     only one of the two behaviours changes);
+    //   - readers use an acquire load: lock-free, and on x86/ARMv8 as cheap
+    //     as a plain field load.
+    // A reader that sees the new set also sees the fully constructed
+    // behaviours inside it.
+    private static final VarHandle BEHAVIOURS;
+    static {
+        try {
+            BEHAVIOURS = MethodHandles.lookup().findVarHandle(Duck.class, "behaviours", BehaviourSet.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BehaviourSet behaviours = BehaviourSet.EMPTY;
 
     public Duck(){};
 
     public abstract void display();
 
     public void performFly(){
-        flyBehaviour.fly();
+        getBehaviours().getFlyBehaviour().fly();
     }
 
     public void performQuack(){
-        quackBehaviour.quack();
+        getBehaviours().getQuackBehaviour().quack();
     }
 
     public void swim(){
-        System.out.println("All ducks can float!");
+        DuckOutput.emit("All ducks can float!");
+    }
+
+    public BehaviourSet getBehaviours(){
+        return (BehaviourSet) BEHAVIOURS.getAcquire(this);
+    }
+
+    public FlyBehaviour getFlyBehaviour(){
+        return getBehaviours().getFlyBehaviour();
+    }
+
+    public QuackBehaviour getQuackBehaviour(){
+        return getBehaviours().getQuackBehaviour();
+    }
+
+    // Replaces both behaviours at once.
+    public void setBehaviours(BehaviourSet set){
+        BEHAVIOURS.setRelease(this, set);
+    }
+
+    // Atomically replaces 'expected' (compared by identity) with 'set'.
+    public boolean compareAndSetBehaviours(BehaviourSet expected, BehaviourSet set){
+        return BEHAVIOURS.compareAndSet(this, expected, set);
     }
 
     public void setFlyBehaviour(FlyBehaviour fb){
-        flyBehaviour = fb;
+        // CAS loop: a concurrent setQuackBehaviour() must not be lost.
+        BehaviourSet current;
+        do {
+            current = getBehaviours();
+        } while (!compareAndSetBehaviours(current, current.withFlyBehaviour(fb)));
     }
 
     public void setQuackBehaviour(QuackBehaviour qb){
-        quackBehaviour = qb;
+        BehaviourSet current;
+        do {
+            current = getBehaviours();
+        } while (!compareAndSetBehaviours(current, current.withQuackBehaviour(qb)));
     }
-    
-}
\ No newline at end of file
+
+}
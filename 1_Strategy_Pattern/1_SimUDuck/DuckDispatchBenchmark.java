@@ -0,0 +1,87 @@
+import java.io.File;
+import java.util.Random;
+
+// Compares plain Duck.performFly()/performQuack() with Flock (monomorphic
+// dispatch) on three populations:
+//   mono: only MallardDucks (FlyWithWings + Quack)
+//   bi:   Mallard and Model ducks (FlyWithWings/FlyNoWay + Quack)
+//   mega: every fly and quack behaviour, randomly mixed
+//
+// The JIT profiles call sites for the whole JVM, so a megamorphic run would
+// spoil a later monomorphic one. Like JMH, each population therefore runs in
+// its own forked JVM. Behaviour output goes to NoOpSink, so we time dispatch
+// rather than the console.
+//
+// Run with: java DuckDispatchBenchmark [ducks]
+public class DuckDispatchBenchmark {
+    private static final String[] POPULATIONS = {"mono", "bi", "mega"};
+
+    public static void main(String[] args) throws Exception {
+        int ducks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        if (args.length > 1) {
+            run(args[1], ducks);
+            return;
+        }
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        for (String population : POPULATIONS) {
+            Process fork = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    "DuckDispatchBenchmark", String.valueOf(ducks), population).inheritIO().start();
+            if (fork.waitFor() != 0) {
+                throw new IllegalStateException("Benchmark fork failed for " + population);
+            }
+        }
+    }
+
+    private static void run(String population, int count) {
+        Duck[] ducks = populate(population, count);
+        Flock flock = new Flock();
+        for (Duck duck : ducks) {
+            flock.add(duck);
+        }
+
+        EventSink previous = DuckOutput.setSink(NoOpSink.INSTANCE);
+        long plainNanos = Long.MAX_VALUE;
+        long flockNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ducks.length; i++) {
+                ducks[i].performFly();
+                ducks[i].performQuack();
+            }
+            plainNanos = Math.min(plainNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            flock.performFly();
+            flock.performQuack();
+            flockNanos = Math.min(flockNanos, System.nanoTime() - start);
+        }
+        DuckOutput.setSink(previous);
+        System.out.printf("%-4s: plain %5.2f ns/duck, flock %5.2f ns/duck, speedup %.1fx%n", population,
+                (double) plainNanos / count, (double) flockNanos / count, (double) plainNanos / flockNanos);
+    }
+
+    private static Duck[] populate(String population, int count) {
+        FlyBehaviour[] flies = {new FlyWithWings(), new FlyNoWay(), new FlyRocketPowered()};
+        QuackBehaviour[] quacks = {new Quack(), new MuteQuack(), new SqueakQuack()};
+        Random random = new Random(42);
+        Duck[] ducks = new Duck[count];
+        for (int i = 0; i < count; i++) {
+            switch (population) {
+                case "mono":
+                    ducks[i] = new MallardDuck();
+                    break;
+                case "bi":
+                    ducks[i] = random.nextBoolean() ? new MallardDuck() : new ModelDuck();
+                    break;
+                case "mega":
+                    ducks[i] = random.nextBoolean() ? new MallardDuck() : new ModelDuck();
+                    ducks[i].setFlyBehaviour(flies[random.nextInt(flies.length)]);
+                    ducks[i].setQuackBehaviour(quacks[random.nextInt(quacks.length)]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown population " + population);
+            }
+        }
+        return ducks;
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The EventSink that all ducks and behaviours write to.
+//
+// A single global sink keeps the behaviours stateless (and therefore
+// shareable, see BehaviourRegistry). Reading it costs one volatile load.
+//
+// A thread can also redirect just its OWN lines with setThreadSink() (this is
+// how TickScheduler buffers each chunk) without touching the global sink that
+// every other thread uses. While no thread is redirected, that costs emit()
+// one extra volatile read.
+public final class DuckOutput {
+    private static volatile EventSink sink = SystemOutSink.INSTANCE;
+    private static final ThreadLocal<EventSink> THREAD_SINK = new ThreadLocal<EventSink>();
+    private static final AtomicInteger redirectedThreads = new AtomicInteger();
+
+    private DuckOutput() {
+    }
+
+    public static void emit(String line) {
+        if (redirectedThreads.get() != 0) {
+            EventSink threadSink = THREAD_SINK.get();
+            if (threadSink != null) {
+                threadSink.emit(line);
+                return;
+            }
+        }
+        sink.emit(line);
+    }
+
+    // Sends the calling thread's lines to 'threadSink' (null: back to the
+    // global sink). Returns the thread's previous sink, so callers can restore it.
+    public static EventSink setThreadSink(EventSink threadSink) {
+        EventSink previous = THREAD_SINK.get();
+        if (threadSink == null) {
+            THREAD_SINK.remove();
+        } else {
+            THREAD_SINK.set(threadSink);
+        }
+        if (previous == null && threadSink != null) {
+            redirectedThreads.incrementAndGet();
+        } else if (previous != null && threadSink == null) {
+            redirectedThreads.decrementAndGet();
+        }
+        return previous;
+    }
+
+    public static EventSink getSink() {
+        return sink;
+    }
+
+    // Returns the previous sink, so callers can restore it.
+    public static EventSink setSink(EventSink newSink) {
+        EventSink previous = sink;
+        sink = newSink;
+        return previous;
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.Arrays;
+
+// Data-oriented duck simulation: a whole population in a few primitive arrays.
+//
+// The object model costs at least one heap object per duck: about 20 bytes
+// with shared behaviours (BehaviourRegistry), and up to 84 bytes when a duck
+// holds its own behaviour objects and BehaviourSet.
+// Here a duck is just three bytes -- its species, fly behaviour and quack
+// behaviour ids -- in parallel arrays (a "struct of arrays"). The behaviours
+// themselves live once, in small per-population tables.
+//
+// Phases (performFly, performQuack, swim) are plain loops over a range of
+// ducks, which also makes them easy to split across threads.
+//
+// get(index) returns a Duck facade (PopulationDuck) for code that still
+// expects Duck objects; it reads and writes the arrays directly.
+public class DuckPopulation {
+    private static final int MAX_IDS = 256; // ids are stored as unsigned bytes
+
+    private final Duck[] species = new Duck[MAX_IDS];
+    private final FlyBehaviour[] flyBehaviours = new FlyBehaviour[MAX_IDS];
+    private final QuackBehaviour[] quackBehaviours = new QuackBehaviour[MAX_IDS];
+    private int speciesCount;
+    private int flyCount;
+    private int quackCount;
+
+    private byte[] speciesIds;
+    private byte[] flyIds;
+    private byte[] quackIds;
+    private int size;
+
+    public DuckPopulation(int capacity) {
+        speciesIds = new byte[capacity];
+        flyIds = new byte[capacity];
+        quackIds = new byte[capacity];
+    }
+
+    // Adds a duck with the same species and behaviours as 'template'.
+    // Returns its index.
+    public int add(Duck template) {
+        return add(speciesId(template), flyId(template.getFlyBehaviour()), quackId(template.getQuackBehaviour()));
+    }
+
+    public int add(int speciesId, int flyId, int quackId) {
+        if (size == speciesIds.length) {
+            int capacity = Math.max(16, size * 2);
+            speciesIds = Arrays.copyOf(speciesIds, capacity);
+            flyIds = Arrays.copyOf(flyIds, capacity);
+            quackIds = Arrays.copyOf(quackIds, capacity);
+        }
+        speciesIds[size] = (byte) speciesId;
+        flyIds[size] = (byte) flyId;
+        quackIds[size] = (byte) quackId;
+        return size++;
+    }
+
+    // Ids are handed out on first use. Species are compared by class (the
+    // first duck's display() and swim() are reused). Behaviours are compared
+    // by identity, except the built-in ones: they are stateless, so any two
+    // instances of the same class share one id.
+    public int speciesId(Duck duck) {
+        for (int i = 0; i < speciesCount; i++) {
+            if (species[i].getClass() == duck.getClass()) {
+                return i;
+            }
+        }
+        checkRoom(speciesCount, "species");
+        species[speciesCount] = duck;
+        return speciesCount++;
+    }
+
+    public int flyId(FlyBehaviour fb) {
+        boolean builtIn = BehaviourDispatch.flyKind(fb) != BehaviourDispatch.OTHER;
+        for (int i = 0; i < flyCount; i++) {
+            if (flyBehaviours[i] == fb || (builtIn && flyBehaviours[i].getClass() == fb.getClass())) {
+                return i;
+            }
+        }
+        checkRoom(flyCount, "fly behaviours");
+        flyBehaviours[flyCount] = fb;
+        return flyCount++;
+    }
+
+    public int quackId(QuackBehaviour qb) {
+        boolean builtIn = BehaviourDispatch.quackKind(qb) != BehaviourDispatch.OTHER;
+        for (int i = 0; i < quackCount; i++) {
+            if (quackBehaviours[i] == qb || (builtIn && quackBehaviours[i].getClass() == qb.getClass())) {
+                return i;
+            }
+        }
+        checkRoom(quackCount, "quack behaviours");
+        quackBehaviours[quackCount] = qb;
+        return quackCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Duck get(int index) {
+        checkIndex(index);
+        return new PopulationDuck(this, index);
+    }
+
+    public FlyBehaviour getFlyBehaviour(int index) {
+        return flyBehaviours[flyIds[index] & 0xFF];
+    }
+
+    public QuackBehaviour getQuackBehaviour(int index) {
+        return quackBehaviours[quackIds[index] & 0xFF];
+    }
+
+    public void setFlyBehaviour(int index, FlyBehaviour fb) {
+        checkIndex(index);
+        flyIds[index] = (byte) flyId(fb);
+    }
+
+    public void setQuackBehaviour(int index, QuackBehaviour qb) {
+        checkIndex(index);
+        quackIds[index] = (byte) quackId(qb);
+    }
+
+    public void display(int index) {
+        species[speciesIds[index] & 0xFF].display();
+    }
+
+    public void performFly() {
+        performFly(0, size);
+    }
+
+    public void performQuack() {
+        performQuack(0, size);
+    }
+
+    public void swim() {
+        swim(0, size);
+    }
+
+    // Phases over ducks [from, to).
+    public void performFly(int from, int to) {
+        byte[] ids = flyIds;
+        FlyBehaviour[] table = flyBehaviours;
+        for (int i = from; i < to; i++) {
+            BehaviourDispatch.fly(table[ids[i] & 0xFF]);
+        }
+    }
+
+    public void performQuack(int from, int to) {
+        byte[] ids = quackIds;
+        QuackBehaviour[] table = quackBehaviours;
+        for (int i = from; i < to; i++) {
+            BehaviourDispatch.quack(table[ids[i] & 0xFF]);
+        }
+    }
+
+    public void swim(int from, int to) {
+        byte[] ids = speciesIds;
+        Duck[] table = species;
+        for (int i = from; i < to; i++) {
+            table[ids[i] & 0xFF].swim();
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Duck " + index + " of " + size);
+        }
+    }
+
+    private static void checkRoom(int count, String what) {
+        if (count == MAX_IDS) {
+            throw new IllegalStateException("A population supports at most " + MAX_IDS + " " + what);
+        }
+    }
+}
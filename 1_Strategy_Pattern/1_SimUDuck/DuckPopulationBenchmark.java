@@ -0,0 +1,105 @@
+import java.util.Random;
+
+// Object-per-duck (Duck[]) versus DuckPopulation (struct of arrays), on the
+// same random mix of Mallard and Model ducks with mixed behaviours:
+//   - heap retained by each model (measured after a GC);
+//   - time for one tick: fly, quack and swim for every duck.
+// Behaviour output goes to NoOpSink, so we time the
+// simulation rather than the console.
+//
+// 10M ducks need a bigger heap for the object model:
+//   java -Xmx3g DuckPopulationBenchmark 10000000
+//
+// Run with: java DuckPopulationBenchmark [ducks]
+public class DuckPopulationBenchmark {
+    // Keeps the model being measured reachable (the JIT may treat an unused local as dead).
+    private static Object retained;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        long before = usedHeap();
+        Duck[] ducks = objectModel(count);
+        retained = ducks;
+        long objectBytes = usedHeap() - before;
+        long objectNanos = timeTicks(() -> {
+            for (int i = 0; i < ducks.length; i++) {
+                ducks[i].performFly();
+            }
+            for (int i = 0; i < ducks.length; i++) {
+                ducks[i].performQuack();
+            }
+            for (int i = 0; i < ducks.length; i++) {
+                ducks[i].swim();
+            }
+        });
+        System.out.printf("objects:    %6.1f bytes/duck, %6.2f ns/duck per tick%n",
+                (double) objectBytes / count, (double) objectNanos / count);
+        retained = null;
+
+        before = usedHeap();
+        DuckPopulation population = populationModel(count);
+        retained = population;
+        long populationBytes = usedHeap() - before;
+        long populationNanos = timeTicks(() -> {
+            population.performFly();
+            population.performQuack();
+            population.swim();
+        });
+        System.out.printf("population: %6.1f bytes/duck, %6.2f ns/duck per tick%n",
+                (double) populationBytes / count, (double) populationNanos / count);
+        System.out.printf("memory %.1fx smaller, tick %.1fx faster%n",
+                (double) objectBytes / populationBytes, (double) objectNanos / populationNanos);
+    }
+
+    // Ducks built the usual way: each constructor allocates its own behaviours.
+    private static Duck[] objectModel(int count) {
+        Random random = new Random(42);
+        Duck[] ducks = new Duck[count];
+        for (int i = 0; i < count; i++) {
+            ducks[i] = randomDuck(random);
+        }
+        return ducks;
+    }
+
+    private static DuckPopulation populationModel(int count) {
+        Random random = new Random(42);
+        DuckPopulation population = new DuckPopulation(count);
+        for (int i = 0; i < count; i++) {
+            population.add(randomDuck(random));
+        }
+        return population;
+    }
+
+    private static Duck randomDuck(Random random) {
+        Duck duck = random.nextBoolean() ? new MallardDuck() : new ModelDuck();
+        if (random.nextInt(4) == 0) {
+            duck.setFlyBehaviour(new FlyRocketPowered());
+        }
+        if (random.nextInt(4) == 0) {
+            duck.setQuackBehaviour(random.nextBoolean() ? new MuteQuack() : new SqueakQuack());
+        }
+        return duck;
+    }
+
+    // Best of 10 ticks, with output discarded.
+    private static long timeTicks(Runnable tick) {
+        EventSink previous = DuckOutput.setSink(NoOpSink.INSTANCE);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            tick.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        DuckOutput.setSink(previous);
+        return best;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
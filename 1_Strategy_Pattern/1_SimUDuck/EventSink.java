@@ -0,0 +1,11 @@
+// Where ducks and behaviours send their output ("Quack Quack!", ...).
+//
+// Behaviours call DuckOutput.emit(line) instead of System.out.println, so the
+// destination can be swapped: the console (SystemOutSink, the default), a
+// buffered background writer (RingBufferSink), nothing at all (NoOpSink, for
+// benchmarks), or a counter (CountingSink, for tests).
+//
+// Implementations must be thread-safe: simulation threads emit concurrently.
+public interface EventSink {
+    void emit(String line);
+}
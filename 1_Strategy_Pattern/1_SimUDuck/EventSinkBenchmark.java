@@ -0,0 +1,74 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// Lines per second that 1, 2, 4 and N simulation threads can emit through:
+//   - SystemOutSink:  System.out.println, here writing to a file (synchronized,
+//                     flushed on every line);
+//   - RingBufferSink: lock-free ring buffer drained by a background writer
+//                     into the same kind of file.
+// Both write to /dev/null by default, so the disk is not what is measured.
+// Times include draining everything that was buffered.
+//
+// Run with: java EventSinkBenchmark [linesPerThread] [outputFile]
+public class EventSinkBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        String file = args.length > 1 ? args[1] : "/dev/null";
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        PrintStream console = System.out;
+        console.println("available processors: " + cores);
+        for (int threads : new int[] {1, 2, 4, cores}) {
+            long printlnNanos = Long.MAX_VALUE;
+            long ringNanos = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                try (OutputStream out = new FileOutputStream(file)) {
+                    System.setOut(new PrintStream(out, true));
+                    printlnNanos = Math.min(printlnNanos, run(SystemOutSink.INSTANCE, threads, lines, null));
+                    System.setOut(console);
+                }
+                try (OutputStream out = new FileOutputStream(file)) {
+                    RingBufferSink ring = new RingBufferSink(1 << 16, out);
+                    ringNanos = Math.min(ringNanos, run(ring, threads, lines, ring));
+                }
+            }
+            long total = (long) threads * lines;
+            console.printf("%2d threads: println %,12.0f lines/s, ring buffer %,12.0f lines/s (%.1fx)%n", threads,
+                    total * 1e9 / printlnNanos, total * 1e9 / ringNanos, (double) printlnNanos / ringNanos);
+        }
+    }
+
+    // Emits 'lines' behaviour lines from each of 'threads' threads through 'sink'.
+    private static long run(EventSink sink, int threads, int lines, RingBufferSink toClose)
+            throws InterruptedException, IOException {
+        EventSink previous = DuckOutput.setSink(sink);
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                FlyBehaviour fly = BehaviourRegistry.FLY_WITH_WINGS;
+                QuackBehaviour quack = BehaviourRegistry.QUACK;
+                for (int i = 0; i < lines; i += 2) {
+                    fly.fly();
+                    quack.quack();
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (toClose != null) {
+            toClose.close();
+            if (toClose.getFailure() != null) {
+                throw toClose.getFailure();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        DuckOutput.setSink(previous);
+        return elapsed;
+    }
+}
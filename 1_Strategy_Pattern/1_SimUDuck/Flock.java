@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+// A group of ducks that fly, quack and swim together, with monomorphic
+// dispatch (see BehaviourDispatch).
+//
+// Ducks are kept sorted by (fly kind, quack kind), so a phase walks all the
+// FlyWithWings ducks, then all the FlyNoWay ducks, and so on: the
+// BehaviourDispatch branches are taken in long runs and predicted almost
+// perfectly.
+//
+// Behaviours can still be swapped on any duck at any time: every phase reads
+// each duck's CURRENT behaviour, so results are always correct. Sorting is
+// only an optimization; call regroup() after many swaps to restore it.
+//
+// EPOCH SWAPS: swapAll() moves the whole flock to new behaviours as one
+// numbered epoch, and may be called from a control thread while the
+// simulation runs. Build the flock (add/regroup) before sharing it.
+// PopulationDucks cannot join: their compare-and-set is not atomic and keeps
+// no epoch, so swapAll() could not keep its promise for them. Swap behaviours
+// of a running DuckPopulation through TickScheduler instead.
+public class Flock {
+    private Duck[] ducks = new Duck[16];
+    private int size;
+    private boolean grouped = true;
+    private volatile long epoch;
+
+    public void add(Duck duck) {
+        if (duck instanceof PopulationDuck) {
+            throw new IllegalArgumentException(
+                    "PopulationDuck cannot join a Flock; use TickScheduler to swap its behaviours");
+        }
+        if (size == ducks.length) {
+            ducks = Arrays.copyOf(ducks, size * 2);
+        }
+        ducks[size++] = duck;
+        grouped = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Duck get(int index) {
+        return ducks[index];
+    }
+
+    public void performFly() {
+        groupIfNeeded();
+        for (int i = 0; i < size; i++) {
+            BehaviourDispatch.fly(ducks[i].getFlyBehaviour());
+        }
+    }
+
+    public void performQuack() {
+        groupIfNeeded();
+        for (int i = 0; i < size; i++) {
+            BehaviourDispatch.quack(ducks[i].getQuackBehaviour());
+        }
+    }
+
+    public void swim() {
+        for (int i = 0; i < size; i++) {
+            ducks[i].swim();
+        }
+    }
+
+    // Gives every duck 'fb' and 'qb' (null keeps a duck's current one),
+    // stamped with a new epoch number, which is returned. Each duck switches
+    // both behaviours in one step. getEpoch() is published LAST, so a thread
+    // that reads the new epoch number also sees every duck's new behaviours.
+    public synchronized long swapAll(FlyBehaviour fb, QuackBehaviour qb) {
+        long next = epoch + 1;
+        for (int i = 0; i < size; i++) {
+            Duck duck = ducks[i];
+            BehaviourSet current;
+            BehaviourSet updated;
+            do {
+                current = duck.getBehaviours();
+                updated = new BehaviourSet(fb != null ? fb : current.getFlyBehaviour(),
+                        qb != null ? qb : current.getQuackBehaviour(), next);
+            } while (!duck.compareAndSetBehaviours(current, updated));
+        }
+        epoch = next;
+        return next;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    // Re-sorts the ducks by their current behaviours (a stable counting sort).
+    public void regroup() {
+        int kinds = BehaviourDispatch.KINDS * BehaviourDispatch.KINDS;
+        int[] keys = new int[size];
+        int[] starts = new int[kinds + 1];
+        for (int i = 0; i < size; i++) {
+            keys[i] = BehaviourDispatch.flyKind(ducks[i].getFlyBehaviour()) * BehaviourDispatch.KINDS
+                    + BehaviourDispatch.quackKind(ducks[i].getQuackBehaviour());
+            starts[keys[i] + 1]++;
+        }
+        for (int k = 0; k < kinds; k++) {
+            starts[k + 1] += starts[k];
+        }
+        Duck[] sorted = new Duck[ducks.length];
+        for (int i = 0; i < size; i++) {
+            sorted[starts[keys[i]]++] = ducks[i];
+        }
+        ducks = sorted;
+        grouped = true;
+    }
+
+    private void groupIfNeeded() {
+        if (!grouped) {
+            regroup();
+        }
+    }
+}
@@ -1,5 +1,5 @@
-public class FlyNoWay implements FlyBehaviour {
+public final class FlyNoWay implements FlyBehaviour {
     public void fly(){
-        System.out.println("I can't fly :-( ");
+        DuckOutput.emit("I can't fly :-( ");
     }
 }
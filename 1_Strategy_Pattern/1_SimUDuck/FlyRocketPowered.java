@@ -1,7 +1,7 @@
-public class FlyRocketPowered implements FlyBehaviour{
+public final class FlyRocketPowered implements FlyBehaviour{
 
     public void fly(){
-        System.out.println("I'm flying with a rocket!");
+        DuckOutput.emit("I'm flying with a rocket!");
     }
     
 }
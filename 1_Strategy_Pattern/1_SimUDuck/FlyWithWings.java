@@ -1,7 +1,7 @@
-public class FlyWithWings implements FlyBehaviour {
+public final class FlyWithWings implements FlyBehaviour {
 
     public void fly(){
-        System.out.println("I'm Flying :-) ");
+        DuckOutput.emit("I'm Flying :-) ");
     }
     
 }
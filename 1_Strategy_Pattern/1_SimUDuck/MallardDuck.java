@@ -1,11 +1,11 @@
 public class MallardDuck extends Duck {
     
     public MallardDuck(){
-        quackBehaviour = new Quack();
-        flyBehaviour = new FlyWithWings();
+        // Shared, stateless behaviours: no allocation per duck.
+        setBehaviours(BehaviourRegistry.set(BehaviourRegistry.FLY_WITH_WINGS, BehaviourRegistry.QUACK));
     }
 
     public void display(){
-        System.out.println("I'm a real Mallard Duck!");
+        DuckOutput.emit("I'm a real Mallard Duck!");
     }
 }
@@ -6,7 +6,7 @@ public class MiniDuckSimulator {
         mallardDuck.performFly();
         mallardDuck.performQuack();
 
-        System.out.println("---------Now the Model Duck!---------");
+        DuckOutput.emit("---------Now the Model Duck!---------");
 
         Duck model = new ModelDuck();
         model.performFly();
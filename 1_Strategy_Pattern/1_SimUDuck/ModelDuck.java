@@ -1,12 +1,11 @@
 public class ModelDuck extends Duck {
 
     public ModelDuck(){
-        flyBehaviour = new FlyNoWay();
-        quackBehaviour = new Quack();
+        setBehaviours(BehaviourRegistry.set(BehaviourRegistry.FLY_NO_WAY, BehaviourRegistry.QUACK));
     }
 
     public void display(){
-        System.out.println("I'm a Model Duck.");
+        DuckOutput.emit("I'm a Model Duck.");
     }
     
 }
@@ -1,7 +1,7 @@
-public class MuteQuack implements QuackBehaviour {
+public final class MuteQuack implements QuackBehaviour {
 
     public void quack(){
-        System.out.println("<< Silence >>");
+        DuckOutput.emit("<< Silence >>");
     }
     
 }
@@ -0,0 +1,10 @@
+// Drops every line. For benchmarks that should measure the simulation, not the console.
+public final class NoOpSink implements EventSink {
+    public static final NoOpSink INSTANCE = new NoOpSink();
+
+    private NoOpSink() {
+    }
+
+    public void emit(String line) {
+    }
+}
@@ -0,0 +1,5 @@
+// One step of a BehaviourPipeline. Returns false to stop the pipeline here
+// (e.g. a rate limit that is not yet open), true to go on to the next step.
+public interface PipelineStage {
+    boolean run();
+}
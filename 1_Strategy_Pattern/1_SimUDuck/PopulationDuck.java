@@ -0,0 +1,68 @@
+// Duck facade over one slot of a DuckPopulation.
+//
+// Lets existing code keep calling performFly(), setFlyBehaviour(...) etc.
+// Every call goes straight to the population's arrays, so the facade holds no
+// state of its own and can be created and dropped freely.
+public class PopulationDuck extends Duck {
+    private final DuckPopulation population;
+    private final int index;
+
+    PopulationDuck(DuckPopulation population, int index) {
+        this.population = population;
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void display() {
+        population.display(index);
+    }
+
+    public void performFly() {
+        population.performFly(index, index + 1);
+    }
+
+    public void performQuack() {
+        population.performQuack(index, index + 1);
+    }
+
+    // A population has no epochs: the set is rebuilt from the arrays (epoch 0).
+    public BehaviourSet getBehaviours() {
+        return new BehaviourSet(getFlyBehaviour(), getQuackBehaviour(), 0);
+    }
+
+    public void setBehaviours(BehaviourSet set) {
+        setFlyBehaviour(set.getFlyBehaviour());
+        setQuackBehaviour(set.getQuackBehaviour());
+    }
+
+    // NOT atomic: the population's arrays are not thread-safe, so this is a
+    // plain check-then-act on the behaviours themselves, and the epoch of
+    // 'set' is dropped. Fine for one thread; concurrent swaps must go through
+    // TickScheduler (which is also why Flock refuses population ducks).
+    public boolean compareAndSetBehaviours(BehaviourSet expected, BehaviourSet set) {
+        if (getFlyBehaviour() != expected.getFlyBehaviour() || getQuackBehaviour() != expected.getQuackBehaviour()) {
+            return false;
+        }
+        setBehaviours(set);
+        return true;
+    }
+
+    public FlyBehaviour getFlyBehaviour() {
+        return population.getFlyBehaviour(index);
+    }
+
+    public QuackBehaviour getQuackBehaviour() {
+        return population.getQuackBehaviour(index);
+    }
+
+    public void setFlyBehaviour(FlyBehaviour fb) {
+        population.setFlyBehaviour(index, fb);
+    }
+
+    public void setQuackBehaviour(QuackBehaviour qb) {
+        population.setQuackBehaviour(index, qb);
+    }
+}
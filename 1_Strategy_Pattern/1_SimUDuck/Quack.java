@@ -1,6 +1,6 @@
-public class Quack implements QuackBehaviour{
+public final class Quack implements QuackBehaviour{
     public void quack(){
-        System.out.println("Quack Quack!");
+        DuckOutput.emit("Quack Quack!");
     }
     
 }
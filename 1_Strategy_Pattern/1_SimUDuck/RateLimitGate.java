@@ -0,0 +1,22 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pipeline stage that lets at most one call through per interval; the others
+// stop the pipeline. Lock-free and allocation-free: one CAS on the next
+// opening time.
+//
+// STATEFUL: each gate keeps its own timer, so do not register a pipeline that
+// contains one in BehaviourRegistry (every duck would share the limit).
+public class RateLimitGate implements PipelineStage {
+    private final long intervalNanos;
+    private final AtomicLong nextOpen = new AtomicLong(Long.MIN_VALUE);
+
+    public RateLimitGate(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    public boolean run() {
+        long now = System.nanoTime();
+        long open = nextOpen.get();
+        return (open == Long.MIN_VALUE || now - open >= 0) && nextOpen.compareAndSet(open, now + intervalNanos);
+    }
+}
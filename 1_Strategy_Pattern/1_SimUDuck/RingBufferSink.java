@@ -0,0 +1,145 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Lock-free, multi-producer sink: emit() drops the line into a ring buffer,
+// and ONE background thread writes the lines out in large buffered batches.
+//
+// Simulation threads never take a lock or touch the stream; they only claim a
+// slot with a CAS. Each slot has a sequence number (the bounded-queue design
+// by Dmitry Vyukov):
+//   sequence == position          -> slot is free for the producer at 'position'
+//   sequence == position + 1      -> slot holds a line, ready for the writer
+//   sequence == position + size   -> writer has emptied it for the next lap
+// When the buffer is full, producers spin until the writer frees a slot, so
+// no line is lost.
+//
+// Lines from one thread keep their order; lines from different threads are
+// written in the order they claimed their slots. Call close() to write out
+// everything still buffered.
+public class RingBufferSink implements EventSink, AutoCloseable {
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final String[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // writer thread only
+
+    private final Writer writer;
+    private final Thread thread;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // 'capacity' is rounded up to a power of two. 'out' is flushed, not closed.
+    public RingBufferSink(int capacity, OutputStream out) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new String[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        this.thread = new Thread(this::writeLoop, "ring-buffer-sink");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public void emit(String line) {
+        if (closed) {
+            throw new IllegalStateException("RingBufferSink is closed");
+        }
+        long position;
+        int spins = 0;
+        while (true) {
+            position = tail.get();
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                // Full: wait for the writer, giving it the CPU if we keep waiting.
+                if (++spins < 64) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            // else another producer took this slot first: retry with the new tail
+        }
+        int index = (int) position & mask;
+        slots[index] = line;
+        sequences.set(index, position + 1); // volatile write publishes the line
+    }
+
+    // The first write error, if any (lines are discarded after an error).
+    public IOException getFailure() {
+        return failure;
+    }
+
+    // Writes out everything buffered and stops the writer thread. Stop the
+    // producers first: a line racing with close() may be lost.
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            if (drain() == 0) {
+                flush();
+                if (closed && tail.get() == head) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drain() {
+        int written = 0;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return written; // empty, or the producer has not finished writing
+            }
+            String line = slots[index];
+            slots[index] = null;
+            sequences.lazySet(index, head + slots.length);
+            head++;
+            written++;
+            if (failure == null) {
+                try {
+                    writer.write(line);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    private void flush() {
+        if (failure == null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
-public class SqueakQuack implements QuackBehaviour {
+public final class SqueakQuack implements QuackBehaviour {
     public void quack(){
-        System.out.println("Squeak");
+        DuckOutput.emit("Squeak");
     }
 }
@@ -0,0 +1,13 @@
+// The default sink: System.out.println, as the simulator always did.
+// Simple, but println is synchronized and flushes every line, so every
+// simulation thread queues on the same lock.
+public final class SystemOutSink implements EventSink {
+    public static final SystemOutSink INSTANCE = new SystemOutSink();
+
+    private SystemOutSink() {
+    }
+
+    public void emit(String line) {
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,161 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Runs a DuckPopulation tick by tick on several cores.
+//
+// A tick is three phases -- fly, quack, swim -- and each phase is split into
+// chunks of ducks that run in parallel on a ForkJoinPool. The next phase only
+// starts once every chunk of the previous one has finished.
+//
+// DETERMINISTIC OUTPUT: while a chunk runs, whatever its behaviours print goes
+// into that chunk's own buffer. After the phase, the buffers are appended to
+// the tick's output in chunk order, and the whole tick is written out once
+// its last phase is done. The output is exactly what a single thread would
+// print, whatever the thread count, and a tick that fails prints nothing.
+//
+// BEHAVIOUR SWAPS: changing a duck's behaviour in the middle of a tick would
+// race with the workers reading it. swapFlyBehaviour()/swapQuackBehaviour()
+// queue the change instead (from any thread), and tick() applies the queue
+// before it starts, while no worker is running.
+//
+// Only one thread should call tick(). The chunk buffers are fed through
+// DuckOutput.setThreadSink() on whichever thread runs each chunk, so the
+// global sink is never touched: ducks outside the scheduler, and other
+// schedulers ticking at the same time, keep their own output.
+public class TickScheduler implements AutoCloseable {
+    private final DuckPopulation population;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final PrintStream out; // null: output is discarded
+    private final ConcurrentLinkedQueue<Runnable> pendingSwaps = new ConcurrentLinkedQueue<Runnable>();
+    private StringBuilder[] buffers = new StringBuilder[0];
+    private EventSink[] chunkSinks = new EventSink[0];
+    private final StringBuilder tickOutput = new StringBuilder();
+    private long ticks;
+
+    public TickScheduler(DuckPopulation population, int threads, int chunkSize, PrintStream out) {
+        if (threads < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("threads and chunkSize must be at least 1");
+        }
+        this.population = population;
+        this.pool = new ForkJoinPool(threads);
+        this.chunkSize = chunkSize;
+        this.out = out;
+    }
+
+    public void swapFlyBehaviour(int duck, FlyBehaviour fb) {
+        pendingSwaps.add(() -> population.setFlyBehaviour(duck, fb));
+    }
+
+    public void swapQuackBehaviour(int duck, QuackBehaviour qb) {
+        pendingSwaps.add(() -> population.setQuackBehaviour(duck, qb));
+    }
+
+    public void tick() {
+        Runnable swap;
+        while ((swap = pendingSwaps.poll()) != null) {
+            swap.run();
+        }
+
+        int size = population.size();
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        if (buffers.length < chunks) {
+            buffers = new StringBuilder[chunks];
+            chunkSinks = new EventSink[chunks];
+            for (int c = 0; c < chunks; c++) {
+                StringBuilder buffer = new StringBuilder();
+                buffers[c] = buffer;
+                chunkSinks[c] = out == null ? NoOpSink.INSTANCE : line -> buffer.append(line).append('\n');
+            }
+        }
+
+        try {
+            for (int phase = 0; phase < 3; phase++) {
+                runPhase(phase, size, chunks);
+            }
+        } catch (RuntimeException | Error e) {
+            tickOutput.setLength(0);
+            throw e;
+        }
+        if (out != null) {
+            out.append(tickOutput);
+            out.flush();
+            tickOutput.setLength(0);
+        }
+        ticks++;
+    }
+
+    public long getTickCount() {
+        return ticks;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private void runPhase(int phase, int size, int chunks) {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = c * chunkSize;
+            int to = Math.min(size, from + chunkSize);
+            EventSink chunkSink = chunkSinks[c];
+            tasks.add(() -> {
+                EventSink previous = DuckOutput.setThreadSink(chunkSink);
+                try {
+                    switch (phase) {
+                        case 0:
+                            population.performFly(from, to);
+                            break;
+                        case 1:
+                            population.performQuack(from, to);
+                            break;
+                        default:
+                            population.swim(from, to);
+                            break;
+                    }
+                } finally {
+                    DuckOutput.setThreadSink(previous);
+                }
+                return null;
+            });
+        }
+        List<Future<Void>> results = pool.invokeAll(tasks);
+        // invokeAll() waits for every chunk but keeps their exceptions in the
+        // futures: rethrow the first one, so a failed chunk fails the tick
+        // (which is then not counted) instead of silently cutting it short.
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                for (int c = 0; c < chunks; c++) {
+                    buffers[c].setLength(0);
+                }
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during a tick", e);
+            }
+        }
+
+        if (out != null) {
+            for (int c = 0; c < chunks; c++) {
+                tickOutput.append(buffers[c]);
+                buffers[c].setLength(0);
+            }
+        }
+    }
+}
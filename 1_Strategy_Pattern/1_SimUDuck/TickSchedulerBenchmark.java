@@ -0,0 +1,63 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+// Ducks simulated per second by TickScheduler at 1, 2, 4 and N threads
+// (N = available processors), with behaviour output discarded. Also checks
+// that the parallel output of a small population is identical to a
+// single-threaded run.
+//
+// Run with: java TickSchedulerBenchmark [ducks] [chunkSize]
+public class TickSchedulerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int ducks = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : 16_384;
+        int cores = Runtime.getRuntime().availableProcessors();
+        checkDeterministic(Math.max(4, cores));
+
+        DuckPopulation population = new DuckPopulation(ducks);
+        FlyBehaviour[] flies = {new FlyWithWings(), new FlyNoWay(), new FlyRocketPowered()};
+        QuackBehaviour[] quacks = {new Quack(), new MuteQuack(), new SqueakQuack()};
+        int mallard = population.speciesId(new MallardDuck());
+        int model = population.speciesId(new ModelDuck());
+        for (int i = 0; i < ducks; i++) {
+            population.add(i % 2 == 0 ? mallard : model, population.flyId(flies[i % 3]),
+                    population.quackId(quacks[(i / 3) % 3]));
+        }
+
+        System.out.println("available processors: " + cores);
+        for (int threads : new int[] {1, 2, 4, cores}) {
+            try (TickScheduler scheduler = new TickScheduler(population, threads, chunkSize, null)) {
+                long best = Long.MAX_VALUE;
+                for (int round = 0; round < 10; round++) {
+                    long start = System.nanoTime();
+                    scheduler.tick();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.printf("%2d threads: %,.0f ducks/sec%n", threads, ducks * 1e9 / best);
+            }
+        }
+    }
+
+    private static void checkDeterministic(int threads) throws Exception {
+        String expected = run(1, 1000);
+        if (!run(threads, 7).equals(expected)) {
+            throw new IllegalStateException("Parallel output differs from the single-threaded run");
+        }
+    }
+
+    private static String run(int threads, int chunkSize) throws Exception {
+        DuckPopulation population = new DuckPopulation(64);
+        for (int i = 0; i < 100; i++) {
+            population.add(i % 3 == 0 ? new ModelDuck() : new MallardDuck());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TickScheduler scheduler = new TickScheduler(population, threads, chunkSize,
+                new PrintStream(bytes, false, "UTF-8"))) {
+            scheduler.tick();
+            scheduler.swapFlyBehaviour(5, new FlyRocketPowered());
+            scheduler.tick();
+        }
+        return bytes.toString("UTF-8");
+    }
+}
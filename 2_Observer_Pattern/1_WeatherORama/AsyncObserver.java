@@ -0,0 +1,194 @@
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Wraps an Observer with its own bounded queue so that a slow observer
+ * never holds up the thread calling setMeasurements().
+ *
+ * Readings are stored in primitive ring buffers (no allocation per reading).
+ * A drain task is submitted to the shared Executor only when the queue goes
+ * from empty to non-empty, so at most one task per observer is in flight and
+ * updates are delivered in order. On Java 21+ the executor can simply be
+ * Executors.newVirtualThreadPerTaskExecutor().
+ */
+public class AsyncObserver implements Observer {
+    private final Observer delegate;
+    private final Executor executor;
+    private final BackpressurePolicy policy;
+
+    private final float[] temperatures;
+    private final float[] humidities;
+    private final float[] pressures;
+    private int head;
+    private int count;
+    private boolean drainScheduled;
+    private long dropped;
+    private long failures;
+    private RuntimeException lastFailure;
+    // Set by WeatherData.enableMetrics(); when present, the drain task times every delivery.
+    private volatile ObserverMetrics metrics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    public AsyncObserver(Observer delegate, Executor executor, int capacity, BackpressurePolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        if (delegate == null || executor == null || policy == null) {
+            throw new IllegalArgumentException("delegate, executor and policy are required");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+        this.policy = policy;
+        // COALESCE_LATEST only ever needs the newest reading.
+        int slots = policy == BackpressurePolicy.COALESCE_LATEST ? 1 : capacity;
+        temperatures = new float[slots];
+        humidities = new float[slots];
+        pressures = new float[slots];
+    }
+
+    public Observer getDelegate() {
+        return delegate;
+    }
+
+    void setMetrics(ObserverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void update(float temperature, float humidity, float pressure) {
+        lock.lock();
+        try {
+            int capacity = temperatures.length;
+            if (count == capacity) {
+                switch (policy) {
+                    case BLOCK:
+                        // Only a drain can make room. If none is scheduled (the
+                        // executor rejected it earlier), schedule one -- or fail
+                        // now -- rather than wait forever.
+                        scheduleDrain();
+                        while (count == capacity) {
+                            notFull.awaitUninterruptibly();
+                        }
+                        break;
+                    case DROP_OLDEST:
+                    case COALESCE_LATEST:
+                        head = (head + 1) % capacity;
+                        count--;
+                        dropped++;
+                        break;
+                }
+            }
+            int tail = (head + count) % capacity;
+            temperatures[tail] = temperature;
+            humidities[tail] = humidity;
+            pressures[tail] = pressure;
+            count++;
+
+            scheduleDrain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock.
+    private void scheduleDrain() {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // e.g. RejectedExecutionException: no drain is running, so let the
+                // next update() try again. Queued readings stay queued.
+                drainScheduled = false;
+                throw e;
+            }
+        }
+    }
+
+    // Runs on the executor: delivers queued readings until the queue is empty.
+    private void drain() {
+        while (true) {
+            float temperature;
+            float humidity;
+            float pressure;
+            lock.lock();
+            try {
+                if (count == 0) {
+                    drainScheduled = false;
+                    return;
+                }
+                temperature = temperatures[head];
+                humidity = humidities[head];
+                pressure = pressures[head];
+                head = (head + 1) % temperatures.length;
+                count--;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            // The delegate runs outside the lock so the publisher can keep enqueueing.
+            ObserverMetrics m = metrics;
+            long start = m == null ? 0 : System.nanoTime();
+            try {
+                delegate.update(temperature, humidity, pressure);
+            } catch (RuntimeException e) {
+                // A failing update must not end the drain: drainScheduled would stay
+                // true and this observer would never be scheduled again.
+                recordFailure(e);
+            }
+            if (m != null) {
+                m.record(System.nanoTime() - start, 1);
+            }
+        }
+    }
+
+    private void recordFailure(RuntimeException e) {
+        lock.lock();
+        try {
+            failures++;
+            lastFailure = e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Updates that threw. The reading is skipped and delivery carries on.
+    public long getFailureCount() {
+        lock.lock();
+        try {
+            return failures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RuntimeException getLastFailure() {
+        lock.lock();
+        try {
+            return lastFailure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+// What an AsyncObserver does when its queue is full and a new reading arrives.
+public enum BackpressurePolicy {
+    // The publisher waits until the observer has drained a slot.
+    BLOCK,
+    // The oldest queued reading is overwritten; the publisher never waits.
+    DROP_OLDEST,
+    // Only the latest reading is kept; older undelivered readings are replaced.
+    COALESCE_LATEST
+}
@@ -1,20 +1,53 @@
 public class CurrentConditionsDisplay implements Observer, DisplayElement {
     private float temperature;
     private float humidity;
+    private final RenderScheduler.Slot renderSlot;
 
     public CurrentConditionsDisplay(Subject weatherData) {
+        this(weatherData, null);
+    }
+
+    // With a scheduler, updates only mark the display dirty; the scheduler redraws it.
+    public CurrentConditionsDisplay(Subject weatherData, RenderScheduler scheduler) {
+        this.renderSlot = scheduler != null ? scheduler.register(this) : null;
         weatherData.registerObserver(this);
     }
 
     @Override
-    public void update(float temperature, float humidity, float pressure) {
+    public synchronized void update(float temperature, float humidity, float pressure) {
         this.temperature = temperature;
         this.humidity = humidity;
-        display();
+        refresh();
+    }
+
+    // Only the latest reading of a batch is "current".
+    @Override
+    public void updateBatch(float[] temps, float[] humidities, float[] pressures, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        int last = offset + length - 1;
+        update(temps[last], humidities[last], pressures[last]);
+    }
+
+    private void refresh() {
+        if (renderSlot != null) {
+            renderSlot.markDirty();
+        } else {
+            display();
+        }
     }
 
     @Override
     public void display() {
-        System.out.println("Current conditions: " + temperature + "F degrees and " + humidity + "% humidity");
+        StringBuilder out = new StringBuilder(64);
+        render(out);
+        System.out.print(out);
+    }
+
+    @Override
+    public synchronized void render(StringBuilder out) {
+        out.append("Current conditions: ").append(temperature).append("F degrees and ")
+                .append(humidity).append("% humidity\n");
     }
 }
@@ -0,0 +1,93 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Per-observer dispatch metrics for one WeatherData, created by
+ * WeatherData.enableMetrics(). Read them in code through snapshot(), or
+ * over JMX after registerMBean().
+ *
+ * Observers are named after their class plus a registration number
+ * (e.g. "StatisticsDisplay#2"), so that the slow one is easy to spot.
+ */
+public class DispatchMetrics implements DispatchMetricsMXBean {
+    private final Map<Observer, ObserverMetrics> metrics = new ConcurrentHashMap<Observer, ObserverMetrics>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    // Metrics for a registered dispatcher; 'observer' is the user's observer it stands for.
+    ObserverMetrics metricsFor(Observer dispatcher, Observer observer, AsyncObserver async) {
+        ObserverMetrics existing = metrics.get(dispatcher);
+        if (existing != null) {
+            return existing;
+        }
+        return metrics.computeIfAbsent(dispatcher, d ->
+                new ObserverMetrics(nameOf(observer) + "#" + nextId.getAndIncrement(), async));
+    }
+
+    ObserverMetrics get(Observer dispatcher) {
+        return metrics.get(dispatcher);
+    }
+
+    void remove(Observer dispatcher) {
+        metrics.remove(dispatcher);
+    }
+
+    public List<ObserverMetricsSnapshot> snapshot() {
+        List<ObserverMetricsSnapshot> snapshots = new ArrayList<ObserverMetricsSnapshot>();
+        for (ObserverMetrics m : metrics.values()) {
+            snapshots.add(m.snapshot());
+        }
+        return snapshots;
+    }
+
+    // Registers this object with the platform MBean server as WeatherORama:type=DispatchMetrics,name=<name>.
+    public void registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("WeatherORama:type=DispatchMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    }
+
+    @Override
+    public Map<String, Long> getDeliveredCounts() {
+        return collect(ObserverMetrics::getDeliveredCount);
+    }
+
+    @Override
+    public Map<String, Long> getDroppedCounts() {
+        return collect(ObserverMetrics::getDroppedCount);
+    }
+
+    @Override
+    public Map<String, Integer> getQueueDepths() {
+        return collect(ObserverMetrics::getQueueDepth);
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanos() {
+        return collect(m -> m.getLatency().getValueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencyNanos() {
+        return collect(m -> m.getLatency().getMax());
+    }
+
+    private <T> Map<String, T> collect(Function<ObserverMetrics, T> value) {
+        Map<String, T> result = new LinkedHashMap<String, T>();
+        for (ObserverMetrics m : metrics.values()) {
+            result.put(m.getName(), value.apply(m));
+        }
+        return result;
+    }
+
+    private static String nameOf(Observer observer) {
+        String name = observer.getClass().getSimpleName();
+        return name.isEmpty() || name.contains("$$Lambda") ? "Observer" : name;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Measures what instrumentation costs per setMeasurements() call with three
+ * cheap observers:
+ *   - baseline : a hand-written loop over the observers (no WeatherData);
+ *   - disabled : the same WeatherData with metrics switched off again
+ *                (disableMetrics()), i.e. the default path;
+ *   - enabled  : that WeatherData with enableMetrics() on.
+ * Disabled and enabled run on the same WeatherData and observers, so the
+ * difference between them is only what metrics add: two System.nanoTime()
+ * calls and a histogram update per observer. "disabled" vs "baseline" is
+ * everything WeatherData does per reading (seqlock, change detection,
+ * snapshot iteration) plus one volatile read for the metrics switch.
+ *
+ * The first rounds are JIT warm-up and print nothing; the best of the timed
+ * rounds is reported.
+ *
+ * Run with: java DispatchMetricsBenchmark [iterations]
+ */
+public class DispatchMetricsBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int TIMED_ROUNDS = 3;
+    private static float sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+
+        Observer[] observers = {
+                (temperature, humidity, pressure) -> sink += temperature,
+                (temperature, humidity, pressure) -> sink += humidity,
+                (temperature, humidity, pressure) -> sink += pressure
+        };
+        WeatherData station = new WeatherData();
+        for (Observer observer : observers) {
+            station.registerObserver(observer);
+        }
+
+        long bestBaseline = Long.MAX_VALUE;
+        long bestOff = Long.MAX_VALUE;
+        long bestOn = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+            long baseline = time(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    for (int j = 0; j < observers.length; j++) {
+                        observers[j].update(i, 50, 30);
+                    }
+                }
+            });
+            station.disableMetrics();
+            long off = time(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    station.setMeasurements(i, 50, 30);
+                }
+            });
+            station.enableMetrics();
+            long on = time(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    station.setMeasurements(i, 50, 30);
+                }
+            });
+            if (round >= WARMUP_ROUNDS) {
+                bestBaseline = Math.min(bestBaseline, baseline);
+                bestOff = Math.min(bestOff, off);
+                bestOn = Math.min(bestOn, on);
+            }
+        }
+
+        double baselineNs = (double) bestBaseline / iterations;
+        double offNs = (double) bestOff / iterations;
+        double onNs = (double) bestOn / iterations;
+        System.out.printf("baseline %.1f ns, metrics disabled %.1f ns, metrics enabled %.1f ns per reading%n",
+                baselineNs, offNs, onNs);
+        System.out.printf("enabled vs disabled: +%.1f ns per reading (%.1f ns per observer, %.2fx)%n",
+                onNs - offNs, (onNs - offNs) / observers.length, onNs / offNs);
+        for (ObserverMetricsSnapshot snapshot : station.getMetrics().snapshot()) {
+            System.out.println(snapshot);
+        }
+    }
+
+    private static long time(Runnable body) {
+        long start = System.nanoTime();
+        body.run();
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,10 @@
+import java.util.Map;
+
+// JMX view of DispatchMetrics. Every map is keyed by observer name.
+public interface DispatchMetricsMXBean {
+    Map<String, Long> getDeliveredCounts();
+    Map<String, Long> getDroppedCounts();
+    Map<String, Integer> getQueueDepths();
+    Map<String, Long> getP99LatencyNanos();
+    Map<String, Long> getMaxLatencyNanos();
+}
@@ -1,4 +1,7 @@
 public interface DisplayElement {
     void display();
-}
 
+    // Appends what display() would print (including the trailing newline) to 'out'.
+    // RenderScheduler uses this to draw into one reusable buffer.
+    void render(StringBuilder out);
+}
@@ -0,0 +1,45 @@
+import java.util.Arrays;
+
+/**
+ * Immutable description of which fields an observer cares about, and how
+ * much each one must move before the observer wants to hear about it.
+ *
+ *   FieldFilter.of(WeatherField.PRESSURE, 0.05f)
+ *   FieldFilter.of(WeatherField.TEMPERATURE, 0.5f).and(WeatherField.HUMIDITY, 1f)
+ *
+ * A threshold of 0 means "any change".
+ */
+public final class FieldFilter {
+    private final int mask;
+    private final float[] thresholds;
+
+    private FieldFilter(int mask, float[] thresholds) {
+        this.mask = mask;
+        this.thresholds = thresholds;
+    }
+
+    public static FieldFilter of(WeatherField field, float minDelta) {
+        return new FieldFilter(0, new float[WeatherField.values().length]).and(field, minDelta);
+    }
+
+    public FieldFilter and(WeatherField field, float minDelta) {
+        if (minDelta < 0) {
+            throw new IllegalArgumentException("minDelta must not be negative");
+        }
+        float[] next = Arrays.copyOf(thresholds, thresholds.length);
+        next[field.ordinal()] = minDelta;
+        return new FieldFilter(mask | field.bit(), next);
+    }
+
+    public boolean includes(WeatherField field) {
+        return (mask & field.bit()) != 0;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public float getThreshold(WeatherField field) {
+        return thresholds[field.ordinal()];
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Observer registered through a FieldFilter. It remembers the values it last
+ * delivered and only passes a reading on when at least one subscribed field
+ * moved by more than its threshold.
+ *
+ * Only touched by the publishing thread, so it needs no synchronization.
+ */
+class FilteredObserver implements Observer {
+    private static final WeatherField[] FIELDS = WeatherField.values();
+
+    private final Observer target;
+    private final FieldFilter filter;
+    private final float[] lastDelivered = new float[FIELDS.length];
+    private boolean delivered;
+    private long lastVersion = -1;
+
+    FilteredObserver(Observer target, FieldFilter filter) {
+        this.target = target;
+        this.filter = filter;
+    }
+
+    Observer getTarget() {
+        return target;
+    }
+
+    FieldFilter getFilter() {
+        return filter;
+    }
+
+    // Called once per changed field this observer is indexed under; 'version'
+    // makes sure a single reading is evaluated (and delivered) at most once.
+    // Returns true if the reading was passed on to the target.
+    boolean offer(long version, float temperature, float humidity, float pressure) {
+        if (lastVersion == version) {
+            return false;
+        }
+        lastVersion = version;
+        return deliverIfMoved(temperature, humidity, pressure);
+    }
+
+    @Override
+    public void update(float temperature, float humidity, float pressure) {
+        deliverIfMoved(temperature, humidity, pressure);
+    }
+
+    private boolean deliverIfMoved(float temperature, float humidity, float pressure) {
+        if (delivered && !movedEnough(temperature, humidity, pressure)) {
+            return false;
+        }
+        for (WeatherField field : FIELDS) {
+            lastDelivered[field.ordinal()] = field.select(temperature, humidity, pressure);
+        }
+        delivered = true;
+        target.update(temperature, humidity, pressure);
+        return true;
+    }
+
+    private boolean movedEnough(float temperature, float humidity, float pressure) {
+        for (WeatherField field : FIELDS) {
+            if (filter.includes(field)) {
+                float delta = Math.abs(field.select(temperature, humidity, pressure) - lastDelivered[field.ordinal()]);
+                if (delta > filter.getThreshold(field)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
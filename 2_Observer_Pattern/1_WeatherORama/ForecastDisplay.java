@@ -1,28 +1,63 @@
 public class ForecastDisplay implements Observer, DisplayElement {
     private float currentPressure = 29.92f;
     private float lastPressure;
+    private final RenderScheduler.Slot renderSlot;
 
     public ForecastDisplay(Subject weatherData) {
+        this(weatherData, null);
+    }
+
+    // With a scheduler, updates only mark the display dirty; the scheduler redraws it.
+    public ForecastDisplay(Subject weatherData, RenderScheduler scheduler) {
+        this.renderSlot = scheduler != null ? scheduler.register(this) : null;
         weatherData.registerObserver(this);
     }
 
     @Override
-    public void update(float temperature, float humidity, float pressure) {
+    public synchronized void update(float temperature, float humidity, float pressure) {
         lastPressure = currentPressure;
         currentPressure = pressure;
 
-        display();
+        refresh();
+    }
+
+    // The forecast compares the last two pressures, so only the tail of a batch matters.
+    @Override
+    public synchronized void updateBatch(float[] temps, float[] humidities, float[] pressures, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        int last = offset + length - 1;
+        lastPressure = length > 1 ? pressures[last - 1] : currentPressure;
+        currentPressure = pressures[last];
+
+        refresh();
+    }
+
+    private void refresh() {
+        if (renderSlot != null) {
+            renderSlot.markDirty();
+        } else {
+            display();
+        }
     }
 
     @Override
     public void display() {
-        System.out.print("Forecast: ");
+        StringBuilder out = new StringBuilder(64);
+        render(out);
+        System.out.print(out);
+    }
+
+    @Override
+    public synchronized void render(StringBuilder out) {
+        out.append("Forecast: ");
         if (currentPressure > lastPressure) {
-            System.out.println("Improving weather on the way!");
+            out.append("Improving weather on the way!\n");
         } else if (currentPressure == lastPressure) {
-            System.out.println("More of the same");
+            out.append("More of the same\n");
         } else if (currentPressure < lastPressure) {
-            System.out.println("Watch out for cooler, rainy weather!");
+            out.append("Watch out for cooler, rainy weather!\n");
         }
     }
 }
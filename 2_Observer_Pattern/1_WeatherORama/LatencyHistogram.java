@@ -0,0 +1,81 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HDR-style latency histogram with log-linear buckets: every power of two is
+ * split into 32 sub-buckets, so any recorded value is reported within ~3%.
+ * It covers 0 ns up to Long.MAX_VALUE in a fixed 1,888-slot array, so
+ * record() never allocates.
+ *
+ * Single writer: record() must not run on two threads at once (it is called
+ * from the publishing thread, or from one AsyncObserver drain task at a time).
+ * Any thread may read.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // One linear group for values below 32, then one group per exponent 5..62
+    // (Long.MAX_VALUE's highest bit is bit 62): 59 * 32 = 1,888 slots.
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private volatile long totalCount;
+    private volatile long max;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int index = indexOf(nanos);
+        // Single writer, so a lazySet of get()+1 is enough; no CAS needed.
+        counts.lazySet(index, counts.get(index) + 1);
+        totalCount = totalCount + 1;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100); 0 if empty.
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount;
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
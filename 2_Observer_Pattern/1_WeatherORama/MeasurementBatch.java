@@ -0,0 +1,55 @@
+/**
+ * Struct-of-arrays buffer of readings, one primitive column per measurement.
+ *
+ * Fill it with add() (for example while backfilling after a network blip)
+ * and hand it to WeatherData.setMeasurementsBatch(). The buffer can be
+ * cleared and reused, so steady-state batching does not allocate.
+ */
+public class MeasurementBatch {
+    private final float[] temperatures;
+    private final float[] humidities;
+    private final float[] pressures;
+    private int size;
+
+    public MeasurementBatch(int capacity) {
+        temperatures = new float[capacity];
+        humidities = new float[capacity];
+        pressures = new float[capacity];
+    }
+
+    // Returns false when the batch is full; the caller should flush and clear it.
+    public boolean add(float temperature, float humidity, float pressure) {
+        if (size == temperatures.length) {
+            return false;
+        }
+        temperatures[size] = temperature;
+        humidities[size] = humidity;
+        pressures[size] = pressure;
+        size++;
+        return true;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == temperatures.length;
+    }
+
+    public float[] getTemperatures() {
+        return temperatures;
+    }
+
+    public float[] getHumidities() {
+        return humidities;
+    }
+
+    public float[] getPressures() {
+        return pressures;
+    }
+}
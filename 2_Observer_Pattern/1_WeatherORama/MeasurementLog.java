@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only binary log of readings, written through a memory-mapped file.
+ *
+ * Layout (little endian):
+ *   header  : int magic, int version, long committedRecords
+ *   records : long timestampMillis, float temperature, float humidity, float pressure
+ *
+ * Appends are plain memory writes into the mapping. Every 'groupCommitSize'
+ * records (and on commit()/close()) the new records are forced to disk,
+ * and only then is the record count in the header updated and forced: the
+ * OS may write dirty pages back in any order, so the header must never
+ * reach the disk ahead of the records it counts. One pair of fsyncs covers
+ * a whole group. After a crash, the log reopens at the last committed record.
+ *
+ * Offsets are record numbers, starting at 0. replay() reads committed
+ * records straight from the mapping and hands them, with their timestamps,
+ * to observers in batches (Observer.replayBatch()), so a restarted display
+ * can rebuild its state at disk bandwidth.
+ */
+public class MeasurementLog implements AutoCloseable {
+    private static final int MAGIC = 0x57544852; // "WTHR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int COMMITTED_OFFSET = 8;
+    private static final int RECORD_BYTES = 20;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int REPLAY_CHUNK = 4096;
+
+    private final FileChannel channel;
+    private final int groupCommitSize;
+    private MappedByteBuffer buffer;
+    private long capacity; // records that fit in the current mapping
+    private long written;
+    private volatile long committed;
+
+    public MeasurementLog(Path path, int groupCommitSize) throws IOException {
+        if (groupCommitSize < 1) {
+            throw new IllegalArgumentException("groupCommitSize must be at least 1");
+        }
+        this.groupCommitSize = groupCommitSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        try {
+            open(path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        written = committed;
+    }
+
+    // Only a new (empty) file gets a fresh header. Anything else must already
+    // be a log: mapping it would grow the file, and writing a header over it
+    // would destroy whatever it held.
+    private void open(Path path) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize > 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break; // shorter than a header
+                }
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a measurement log");
+            }
+            if (header.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported measurement log version: " + header.getInt(4));
+            }
+        }
+        long existingRecords = Math.max(0, (fileSize - HEADER_BYTES) / RECORD_BYTES);
+        map(Math.max(INITIAL_CAPACITY, existingRecords));
+        if (fileSize > 0) {
+            committed = buffer.getLong(COMMITTED_OFFSET);
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(COMMITTED_OFFSET, 0);
+            buffer.force();
+        }
+    }
+
+    // Returns the offset of the new record.
+    public synchronized long append(long timestampMillis, float temperature, float humidity, float pressure) {
+        if (written == capacity) {
+            map(capacity * 2);
+        }
+        int position = (int) (HEADER_BYTES + written * RECORD_BYTES);
+        buffer.putLong(position, timestampMillis);
+        buffer.putFloat(position + 8, temperature);
+        buffer.putFloat(position + 12, humidity);
+        buffer.putFloat(position + 16, pressure);
+        long offset = written++;
+        if (written - committed >= groupCommitSize) {
+            commit();
+        }
+        return offset;
+    }
+
+    // Makes every appended record durable and visible to replay().
+    public synchronized void commit() {
+        if (written == committed) {
+            return;
+        }
+        int from = (int) (HEADER_BYTES + committed * RECORD_BYTES);
+        buffer.force(from, (int) ((written - committed) * RECORD_BYTES));
+        buffer.putLong(COMMITTED_OFFSET, written);
+        buffer.force(0, HEADER_BYTES);
+        committed = written;
+    }
+
+    // Number of committed records; the next replay offset for a fully caught-up reader.
+    public long size() {
+        return committed;
+    }
+
+    /**
+     * Delivers committed records [fromOffset, size()) to the observer through
+     * replayBatch(), in chunks. Returns the offset to resume from next time.
+     */
+    public long replay(long fromOffset, Observer observer) {
+        ByteBuffer view;
+        long end;
+        synchronized (this) {
+            // Committed records never change, so they can be read without the lock.
+            view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            end = committed;
+        }
+        if (fromOffset < 0 || fromOffset > end) {
+            throw new IllegalArgumentException("Offset " + fromOffset + " is outside [0, " + end + "]");
+        }
+        int chunk = (int) Math.min(REPLAY_CHUNK, Math.max(1, end - fromOffset));
+        long[] timestamps = new long[chunk];
+        float[] temperatures = new float[chunk];
+        float[] humidities = new float[chunk];
+        float[] pressures = new float[chunk];
+
+        long offset = fromOffset;
+        while (offset < end) {
+            int n = (int) Math.min(chunk, end - offset);
+            int position = (int) (HEADER_BYTES + offset * RECORD_BYTES);
+            for (int i = 0; i < n; i++, position += RECORD_BYTES) {
+                timestamps[i] = view.getLong(position);
+                temperatures[i] = view.getFloat(position + 8);
+                humidities[i] = view.getFloat(position + 12);
+                pressures[i] = view.getFloat(position + 16);
+            }
+            observer.replayBatch(timestamps, temperatures, humidities, pressures, 0, n);
+            offset += n;
+        }
+        return offset;
+    }
+
+    public long getTimestamp(long offset) {
+        if (offset < 0 || offset >= committed) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " is not committed");
+        }
+        synchronized (this) {
+            return buffer.getLong((int) (HEADER_BYTES + offset * RECORD_BYTES));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        commit();
+        channel.close();
+    }
+
+    // (Re)maps the file so that it can hold 'records' records; mapping past the end grows the file.
+    private void map(long records) {
+        long bytes = HEADER_BYTES + records * RECORD_BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Measurement log is full: " + records + " records");
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        capacity = records;
+    }
+}
@@ -1,3 +1,21 @@
 public interface Observer {
     void update(float temp, float humidity, float pressure);    
+
+    // Bulk delivery of readings [offset, offset + length) from column arrays.
+    // The default replays them one by one; observers that can fold a whole
+    // batch in a single loop (e.g. StatisticsDisplay) should override it.
+    default void updateBatch(float[] temps, float[] humidities, float[] pressures, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            update(temps[i], humidities[i], pressures[i]);
+        }
+    }
+
+    // Historical readings replayed from a MeasurementLog, with the wall-clock
+    // time (epoch millis) each one was recorded. The default ignores the
+    // timestamps; observers with time-windowed state should override it so
+    // old readings do not count as recent.
+    default void replayBatch(long[] timestampsMillis, float[] temps, float[] humidities, float[] pressures,
+            int offset, int length) {
+        updateBatch(temps, humidities, pressures, offset, length);
+    }
 }
@@ -0,0 +1,50 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters for one registered observer: a latency histogram of its
+ * update() calls, how many readings it was given and, for AsyncObserver,
+ * how many were dropped and how many are waiting in its queue.
+ */
+public class ObserverMetrics {
+    private final String name;
+    private final AsyncObserver async;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong delivered = new AtomicLong();
+
+    ObserverMetrics(String name, AsyncObserver async) {
+        this.name = name;
+        this.async = async;
+    }
+
+    // One update()/updateBatch() call that took 'nanos' and carried 'readings' readings.
+    // Single writer, like LatencyHistogram.
+    void record(long nanos, int readings) {
+        latency.record(nanos);
+        delivered.lazySet(delivered.get() + readings);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getDroppedCount() {
+        return async != null ? async.getDroppedCount() : 0;
+    }
+
+    public int getQueueDepth() {
+        return async != null ? async.getQueueDepth() : 0;
+    }
+
+    public ObserverMetricsSnapshot snapshot() {
+        return new ObserverMetricsSnapshot(name, getDeliveredCount(), getDroppedCount(), getQueueDepth(),
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(99), latency.getMax());
+    }
+}
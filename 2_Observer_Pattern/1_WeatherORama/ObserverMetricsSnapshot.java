@@ -0,0 +1,55 @@
+// Immutable, point-in-time copy of one observer's ObserverMetrics.
+public final class ObserverMetricsSnapshot {
+    private final String name;
+    private final long delivered;
+    private final long dropped;
+    private final int queueDepth;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    ObserverMetricsSnapshot(String name, long delivered, long dropped, int queueDepth,
+                            long p50Nanos, long p99Nanos, long maxNanos) {
+        this.name = name;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.queueDepth = queueDepth;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": delivered=" + delivered + " dropped=" + dropped + " queued=" + queueDepth
+                + " p50=" + p50Nanos + "ns p99=" + p99Nanos + "ns max=" + maxNanos + "ns";
+    }
+}
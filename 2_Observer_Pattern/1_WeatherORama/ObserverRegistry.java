@@ -0,0 +1,58 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Copy-on-write set of observers.
+ *
+ * Writers (add/remove) copy the array under a lock and publish the new one
+ * through a volatile field. Readers just take the current array: iterating it
+ * never locks, never allocates and can never throw
+ * ConcurrentModificationException, even while other threads subscribe or
+ * unsubscribe. This fits the weather station well: readings arrive far more
+ * often than dashboards come and go.
+ *
+ * remove() matches observers with equals(), like the ArrayList it replaced.
+ */
+public class ObserverRegistry {
+    private static final Observer[] EMPTY = new Observer[0];
+
+    private volatile Observer[] observers = EMPTY;
+
+    public synchronized void add(Observer o) {
+        Observer[] current = observers;
+        Observer[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = o;
+        observers = next;
+    }
+
+    public synchronized boolean remove(Observer o) {
+        Observer[] current = observers;
+        int index = indexOf(current, o);
+        if (index < 0) {
+            return false;
+        }
+        Observer[] next = new Observer[current.length - 1];
+        System.arraycopy(current, 0, next, 0, index);
+        System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+        observers = next;
+        return true;
+    }
+
+    // The returned array is shared and must be treated as read-only.
+    public Observer[] snapshot() {
+        return observers;
+    }
+
+    public int size() {
+        return observers.length;
+    }
+
+    private static int indexOf(Observer[] array, Observer o) {
+        for (int i = 0; i < array.length; i++) {
+            if (Objects.equals(array[i], o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares the original ArrayList-backed observer list with ObserverRegistry
+ * under mixed load: one publisher thread notifies all observers in a loop
+ * while a second thread keeps subscribing and unsubscribing a dashboard.
+ *
+ * A plain ArrayList throws ConcurrentModificationException under this load,
+ * so the baseline is the smallest fix that makes it safe: locking the list
+ * for both iteration and mutation.
+ *
+ * Run with: java ObserverRegistryBenchmark [observers] [seconds]
+ */
+public class ObserverRegistryBenchmark {
+    private static volatile float sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int observerCount = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Observer counter = (temperature, humidity, pressure) -> sink = temperature;
+
+        // Warm up both paths before measuring.
+        runLocked(observerCount, counter, 1);
+        runCopyOnWrite(observerCount, counter, 1);
+
+        long locked = runLocked(observerCount, counter, seconds);
+        long copyOnWrite = runCopyOnWrite(observerCount, counter, seconds);
+
+        System.out.println("Observers: " + observerCount + ", duration: " + seconds + "s");
+        System.out.println("Locked ArrayList    : " + (locked / seconds) + " notifications/sec");
+        System.out.println("ObserverRegistry    : " + (copyOnWrite / seconds) + " notifications/sec");
+    }
+
+    private static long runLocked(int observerCount, Observer observer, int seconds) throws InterruptedException {
+        List<Observer> observers = new ArrayList<Observer>();
+        for (int i = 0; i < observerCount; i++) {
+            observers.add((temperature, humidity, pressure) -> observer.update(temperature, humidity, pressure));
+        }
+        Observer dashboard = (temperature, humidity, pressure) -> sink = humidity;
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread churn = new Thread(() -> {
+            while (running.get()) {
+                synchronized (observers) {
+                    observers.add(dashboard);
+                }
+                synchronized (observers) {
+                    observers.remove(dashboard);
+                }
+            }
+        });
+        churn.start();
+
+        long notifications = 0;
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            synchronized (observers) {
+                for (Observer o : observers) {
+                    o.update(80, 65, 30.4f);
+                }
+            }
+            notifications++;
+        }
+        running.set(false);
+        churn.join();
+        return notifications;
+    }
+
+    private static long runCopyOnWrite(int observerCount, Observer observer, int seconds) throws InterruptedException {
+        ObserverRegistry registry = new ObserverRegistry();
+        for (int i = 0; i < observerCount; i++) {
+            // Distinct instances so that remove() by identity matches the dashboard only.
+            registry.add((temperature, humidity, pressure) -> observer.update(temperature, humidity, pressure));
+        }
+        Observer dashboard = (temperature, humidity, pressure) -> sink = humidity;
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread churn = new Thread(() -> {
+            while (running.get()) {
+                registry.add(dashboard);
+                registry.remove(dashboard);
+            }
+        });
+        churn.start();
+
+        long notifications = 0;
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            Observer[] snapshot = registry.snapshot();
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i].update(80, 65, 30.4f);
+            }
+            notifications++;
+        }
+        running.set(false);
+        churn.join();
+        return notifications;
+    }
+}
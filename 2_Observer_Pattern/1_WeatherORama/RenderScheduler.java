@@ -0,0 +1,143 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redraws displays at most N times per second on its own thread.
+ *
+ * Instead of printing from inside update(), a display marks its Slot dirty
+ * (a single atomic write). Once per frame the render thread draws every
+ * dirty display into one reusable StringBuilder and writes it through a
+ * BufferedWriter with a reusable char[]: no String is built per render, and
+ * there is one flush per frame instead of one per line.
+ *
+ * Many updates between two frames collapse into a single redraw showing the
+ * latest state.
+ *
+ * A display whose render() throws, or a failed write, only costs that
+ * frame's output: the error is counted (getFailureCount()/getLastFailure())
+ * and the next frame is drawn as usual. An exception escaping renderFrame()
+ * would cancel the periodic task for good.
+ */
+public class RenderScheduler implements AutoCloseable {
+
+    // Handle a display uses to request a redraw.
+    public static class Slot {
+        private final DisplayElement display;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private Slot(DisplayElement display) {
+            this.display = display;
+        }
+
+        public void markDirty() {
+            // Volatile read first: it is cheaper than the write, which is
+            // skipped when the display is already dirty.
+            if (!dirty.get()) {
+                dirty.set(true);
+            }
+        }
+    }
+
+    private volatile Slot[] slots = new Slot[0];
+    private final Writer out;
+    private final StringBuilder frame = new StringBuilder(256);
+    private char[] chars = new char[256];
+    private final ScheduledExecutorService renderThread;
+    private long failures;
+    private RuntimeException lastFailure;
+
+    public RenderScheduler(int maxFramesPerSecond) {
+        this(maxFramesPerSecond, System.out);
+    }
+
+    public RenderScheduler(int maxFramesPerSecond, OutputStream output) {
+        if (maxFramesPerSecond < 1) {
+            throw new IllegalArgumentException("maxFramesPerSecond must be at least 1");
+        }
+        this.out = new BufferedWriter(new OutputStreamWriter(output));
+        this.renderThread = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "weather-render");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / maxFramesPerSecond;
+        renderThread.scheduleAtFixedRate(this::renderFrame, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized Slot register(DisplayElement display) {
+        Slot slot = new Slot(display);
+        Slot[] current = slots;
+        Slot[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = slot;
+        slots = next;
+        return slot;
+    }
+
+    // Draws every dirty display once. Synchronized so close() can render a final frame safely.
+    synchronized void renderFrame() {
+        frame.setLength(0);
+        Slot[] current = slots;
+        for (int i = 0; i < current.length; i++) {
+            Slot slot = current[i];
+            if (slot.dirty.get()) {
+                slot.dirty.set(false);
+                int start = frame.length();
+                try {
+                    slot.display.render(frame);
+                } catch (RuntimeException e) {
+                    frame.setLength(start); // drop the half-rendered display
+                    recordFailure(e);
+                }
+            }
+        }
+        int length = frame.length();
+        if (length == 0) {
+            return;
+        }
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        frame.getChars(0, length, chars, 0);
+        try {
+            out.write(chars, 0, length);
+            out.flush();
+        } catch (IOException e) {
+            recordFailure(new UncheckedIOException(e));
+        }
+    }
+
+    private void recordFailure(RuntimeException e) {
+        failures++;
+        lastFailure = e;
+    }
+
+    // Renders or writes that failed. Each one only lost its own output.
+    public synchronized long getFailureCount() {
+        return failures;
+    }
+
+    public synchronized RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    // Stops the render thread after drawing any pending updates.
+    @Override
+    public void close() {
+        renderThread.shutdown();
+        try {
+            renderThread.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        renderFrame();
+    }
+}
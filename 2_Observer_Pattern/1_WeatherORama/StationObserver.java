@@ -0,0 +1,5 @@
+// Observer for WeatherHub subscriptions that span several stations:
+// the reading comes with the id of the station that produced it.
+public interface StationObserver {
+    void update(int stationId, float temp, float humidity, float pressure);
+}
@@ -1,16 +1,40 @@
+import java.util.concurrent.TimeUnit;
+
 public class StatisticsDisplay implements Observer, DisplayElement {
+    // Readings each window can hold. The default covers a full hour only up to
+    // about 18 readings/s; faster feeds should pass their own capacities.
+    public static final int DEFAULT_WINDOW_CAPACITY = 1 << 16;
+
     private float maxTemp = 0.0f;
     private float minTemp = 200;
-    private float tempSum = 0.0f;
-    private int numReadings; // weatherData field removed as it was unused
+    // Compensated (Neumaier) running sum: a plain float loses precision after millions of readings.
+    private double tempSum = 0.0;
+    private double tempSumCompensation = 0.0;
+    private long numReadings; // weatherData field removed as it was unused
+
+    private final WindowedStatistics lastMinute;
+    private final WindowedStatistics lastHour;
+    private final RenderScheduler.Slot renderSlot;
 
     public StatisticsDisplay(Subject weatherData) {
+        this(weatherData, null);
+    }
+
+    // With a scheduler, updates only mark the display dirty; the scheduler redraws it.
+    public StatisticsDisplay(Subject weatherData, RenderScheduler scheduler) {
+        this(weatherData, scheduler, DEFAULT_WINDOW_CAPACITY, DEFAULT_WINDOW_CAPACITY);
+    }
+
+    public StatisticsDisplay(Subject weatherData, RenderScheduler scheduler, int minuteCapacity, int hourCapacity) {
+        this.lastMinute = new WindowedStatistics(TimeUnit.MINUTES.toNanos(1), minuteCapacity);
+        this.lastHour = new WindowedStatistics(TimeUnit.HOURS.toNanos(1), hourCapacity);
+        this.renderSlot = scheduler != null ? scheduler.register(this) : null;
         weatherData.registerObserver(this);
     }
 
     @Override
-    public void update(float temperature, float humidity, float pressure) {
-        tempSum += temperature;
+    public synchronized void update(float temperature, float humidity, float pressure) {
+        addToSum(temperature);
         numReadings++;
 
         if (temperature > maxTemp) {
@@ -21,11 +45,101 @@ public class StatisticsDisplay implements Observer, DisplayElement {
             minTemp = temperature;
         }
 
-        display();
+        long now = System.nanoTime();
+        lastMinute.add(now, temperature);
+        lastHour.add(now, temperature);
+
+        refresh();
+    }
+
+    // Folds the whole batch in one tight loop over the temperature column,
+    // then displays once.
+    @Override
+    public synchronized void updateBatch(float[] temps, float[] humidities, float[] pressures, int offset, int length) {
+        foldAllTime(temps, offset, length);
+
+        long now = System.nanoTime();
+        for (int i = offset; i < offset + length; i++) {
+            lastMinute.add(now, temps[i]);
+            lastHour.add(now, temps[i]);
+        }
+
+        refresh();
+    }
+
+    // Replayed history keeps its age: each reading goes into the windows at the
+    // nanoTime it would have had, so readings older than an hour fall straight out.
+    @Override
+    public synchronized void replayBatch(long[] timestampsMillis, float[] temps, float[] humidities,
+            float[] pressures, int offset, int length) {
+        foldAllTime(temps, offset, length);
+
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        for (int i = offset; i < offset + length; i++) {
+            long at = nowNanos - TimeUnit.MILLISECONDS.toNanos(Math.max(0, nowMillis - timestampsMillis[i]));
+            lastMinute.add(at, temps[i]);
+            lastHour.add(at, temps[i]);
+        }
+
+        refresh();
+    }
+
+    private void foldAllTime(float[] temps, int offset, int length) {
+        float max = maxTemp;
+        float min = minTemp;
+        for (int i = offset; i < offset + length; i++) {
+            float temperature = temps[i];
+            addToSum(temperature);
+            max = Math.max(max, temperature);
+            min = Math.min(min, temperature);
+        }
+        numReadings += length;
+        maxTemp = max;
+        minTemp = min;
+    }
+
+    // Sliding-window statistics as immutable snapshots: the windows themselves
+    // keep changing under update(). Expired readings are dropped first.
+    public synchronized WindowedStatistics.Snapshot getLastMinute() {
+        lastMinute.advanceTo(System.nanoTime());
+        return lastMinute.snapshot();
+    }
+
+    public synchronized WindowedStatistics.Snapshot getLastHour() {
+        lastHour.advanceTo(System.nanoTime());
+        return lastHour.snapshot();
+    }
+
+    private void refresh() {
+        if (renderSlot != null) {
+            renderSlot.markDirty();
+        } else {
+            display();
+        }
+    }
+
+    private void addToSum(double x) {
+        double t = tempSum + x;
+        if (Math.abs(tempSum) >= Math.abs(x)) {
+            tempSumCompensation += (tempSum - t) + x;
+        } else {
+            tempSumCompensation += (x - t) + tempSum;
+        }
+        tempSum = t;
     }
 
     @Override
     public void display() {
-        System.out.println("Avg/Max/Min temperature = " + (tempSum / numReadings) + "/" + maxTemp + "/" + minTemp);
+        StringBuilder out = new StringBuilder(64);
+        render(out);
+        System.out.print(out);
+    }
+
+    @Override
+    public synchronized void render(StringBuilder out) {
+        float average = (float) ((tempSum + tempSumCompensation) / numReadings);
+        out.append("Avg/Max/Min temperature = ").append(average).append('/')
+                .append(maxTemp).append('/').append(minTemp).append('\n');
     }
-}
\ No newline at end of file
+}
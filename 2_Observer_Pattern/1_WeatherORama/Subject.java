@@ -2,4 +2,10 @@ public interface Subject {
     void registerObserver(Observer o);
     void removeObserver(Observer o);
     void notifyObservers();
+
+    // Registers interest in specific fields only. Subjects that cannot filter
+    // fall back to delivering every change, which is always correct.
+    default void registerObserver(Observer o, FieldFilter filter) {
+        registerObserver(o);
+    }
 }
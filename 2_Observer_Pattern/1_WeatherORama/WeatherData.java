@@ -1,40 +1,387 @@
+import java.lang.invoke.VarHandle;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 public class WeatherData implements Subject {
-    private List<Observer> observers;
+    private final ObserverRegistry observers;
     private float temperature;
     private float humidity;
     private float pressure;
+    // Seqlock guarding the three fields above for lock-free readers:
+    // odd while a write is in progress, bumped by two per published reading.
+    private volatile long sequence;
+
+    // Asynchronous dispatch (optional): when an executor is given, every observer
+    // is wrapped in an AsyncObserver with its own bounded queue.
+    private final Executor executor;
+    private final int queueCapacity;
+    private final BackpressurePolicy backpressurePolicy;
+    private final Map<Observer, AsyncObserver> asyncObservers;
+    private final Set<Observer> registered = ConcurrentHashMap.newKeySet();
+
+    // Field-level subscriptions, indexed by field: a reading only visits the
+    // subscribers of the fields that actually changed.
+    private static final WeatherField[] FIELDS = WeatherField.values();
+    private static final int ALL_FIELDS = (1 << FIELDS.length) - 1;
+    private final ObserverRegistry[] fieldSubscribers;
+    private final Map<Observer, FilteredObserver> filteredObservers;
+    private int changedFields = ALL_FIELDS;
+    private boolean measured; // until the first reading, every field counts as changed
+    private long dispatchVersion;
+
+    // Optional durable history of every published reading.
+    private MeasurementLog log;
+
+    // Observer updates that threw (see deliver()).
+    private volatile long failures;
+    private volatile RuntimeException lastFailure;
+
+    // Optional per-observer instrumentation; null (the default) costs one field read per notification.
+    private volatile DispatchMetrics metrics;
     
     public WeatherData() {
-        observers = new ArrayList<Observer>();
+        this(null, 0, null);
+    }
+
+    public WeatherData(Executor executor, int queueCapacity, BackpressurePolicy backpressurePolicy) {
+        observers = new ObserverRegistry();
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.backpressurePolicy = backpressurePolicy;
+        this.asyncObservers = new ConcurrentHashMap<Observer, AsyncObserver>();
+        this.fieldSubscribers = new ObserverRegistry[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            fieldSubscribers[i] = new ObserverRegistry();
+        }
+        this.filteredObservers = new ConcurrentHashMap<Observer, FilteredObserver>();
     }
     
     @Override
     public void registerObserver(Observer o) {
-        observers.add(o);
+        claim(o);
+        observers.add(dispatcherFor(o));
+    }
+
+    // Only notifies 'o' when one of the filter's fields moved past its threshold.
+    @Override
+    public void registerObserver(Observer o, FieldFilter filter) {
+        claim(o); // a second FilteredObserver would replace the first in the map and leak it
+        FilteredObserver filtered = new FilteredObserver(dispatcherFor(o), filter);
+        filteredObservers.put(o, filtered);
+        for (WeatherField field : FIELDS) {
+            if (filter.includes(field)) {
+                fieldSubscribers[field.ordinal()].add(filtered);
+            }
+        }
+    }
+
+    // Replays the log from 'replayFromOffset' so the observer can rebuild its
+    // state, then registers it for live readings. Call it from the publishing
+    // thread so that no reading is missed or delivered twice.
+    public void registerObserver(Observer o, long replayFromOffset) {
+        if (log == null) {
+            throw new IllegalStateException("No MeasurementLog attached");
+        }
+        claim(o);
+        log.commit();
+        log.replay(replayFromOffset, o);
+        observers.add(dispatcherFor(o));
+    }
+
+    // Every reading published from now on is appended to 'log' before observers see it.
+    public void setMeasurementLog(MeasurementLog log) {
+        this.log = log;
+    }
+
+    // Each observer may be registered once: its wrappers are looked up by the
+    // observer itself, so a second registration would orphan the first one.
+    private void claim(Observer o) {
+        if (!registered.add(o)) {
+            throw new IllegalArgumentException("Observer is already registered: " + o);
+        }
+    }
+
+    // The observer itself, or its AsyncObserver wrapper in asynchronous mode.
+    private Observer dispatcherFor(Observer o) {
+        if (executor == null) {
+            return o;
+        }
+        AsyncObserver async = new AsyncObserver(o, executor, queueCapacity, backpressurePolicy);
+        asyncObservers.put(o, async);
+        DispatchMetrics m = metrics;
+        if (m != null) {
+            async.setMetrics(m.metricsFor(async, o, async));
+        }
+        return async;
     }
     
     @Override
     public void removeObserver(Observer o) {
-        observers.remove(o);
+        registered.remove(o);
+        AsyncObserver async = asyncObservers.remove(o);
+        FilteredObserver filtered = filteredObservers.remove(o);
+        Observer dispatcher;
+        if (filtered != null) {
+            for (ObserverRegistry subscribers : fieldSubscribers) {
+                subscribers.remove(filtered);
+            }
+            dispatcher = filtered;
+        } else {
+            dispatcher = async != null ? async : o;
+            observers.remove(dispatcher);
+        }
+        DispatchMetrics m = metrics;
+        if (m != null) {
+            m.remove(dispatcher);
+            if (async != null) {
+                m.remove(async);
+            }
+        }
+    }
+
+    // Starts recording per-observer latency and delivery counts. Returns the
+    // metrics object, which can also be exposed over JMX.
+    public synchronized DispatchMetrics enableMetrics() {
+        DispatchMetrics m = metrics;
+        if (m == null) {
+            m = new DispatchMetrics();
+            for (Map.Entry<Observer, AsyncObserver> entry : asyncObservers.entrySet()) {
+                AsyncObserver async = entry.getValue();
+                async.setMetrics(m.metricsFor(async, entry.getKey(), async));
+            }
+            metrics = m;
+        }
+        return m;
+    }
+
+    public synchronized void disableMetrics() {
+        metrics = null;
+        for (AsyncObserver async : asyncObservers.values()) {
+            async.setMetrics(null);
+        }
+    }
+
+    public DispatchMetrics getMetrics() {
+        return metrics;
     }
     
     @Override
     public void notifyObservers() {
-        for (Observer observer : observers) {
+        // Safe against concurrent register/remove: we iterate a stable snapshot.
+        Observer[] snapshot = observers.snapshot();
+        DispatchMetrics m = metrics;
+        if (m == null) {
+            for (int i = 0; i < snapshot.length; i++) {
+                deliver(snapshot[i], temperature, humidity, pressure);
+            }
+        } else {
+            for (int i = 0; i < snapshot.length; i++) {
+                Observer observer = snapshot[i];
+                if (observer instanceof AsyncObserver) {
+                    // Only enqueues; its drain task times the real update().
+                    deliver(observer, temperature, humidity, pressure);
+                    continue;
+                }
+                long start = System.nanoTime();
+                deliver(observer, temperature, humidity, pressure);
+                m.metricsFor(observer, observer, null).record(System.nanoTime() - start, 1);
+            }
+        }
+        notifyFieldSubscribers(changedFields, temperature, humidity, pressure);
+    }
+
+    // Visits only the subscribers of changed fields. An observer indexed under
+    // several changed fields is still evaluated once, thanks to the version.
+    private void notifyFieldSubscribers(int changed, float temperature, float humidity, float pressure) {
+        if (changed == 0 || filteredObservers.isEmpty()) {
+            return;
+        }
+        long version = ++dispatchVersion;
+        DispatchMetrics m = metrics;
+        for (WeatherField field : FIELDS) {
+            if ((changed & field.bit()) == 0) {
+                continue;
+            }
+            Observer[] snapshot = fieldSubscribers[field.ordinal()].snapshot();
+            for (int i = 0; i < snapshot.length; i++) {
+                FilteredObserver filtered = (FilteredObserver) snapshot[i];
+                if (m == null || filtered.getTarget() instanceof AsyncObserver) {
+                    offer(filtered, version, temperature, humidity, pressure);
+                    continue;
+                }
+                long start = System.nanoTime();
+                if (offer(filtered, version, temperature, humidity, pressure)) {
+                    m.metricsFor(filtered, filtered.getTarget(), null).record(System.nanoTime() - start, 1);
+                }
+            }
+        }
+    }
+
+    // One observer that throws must not cost the others their delivery:
+    // its failure is counted (getFailureCount()/getLastFailure()) and the
+    // loop moves on to the next observer.
+    private void deliver(Observer observer, float temperature, float humidity, float pressure) {
+        try {
             observer.update(temperature, humidity, pressure);
+        } catch (RuntimeException e) {
+            recordFailure(e);
+        }
+    }
+
+    private void deliverBatch(Observer observer, float[] temperatures, float[] humidities, float[] pressures,
+                              int offset, int length) {
+        try {
+            observer.updateBatch(temperatures, humidities, pressures, offset, length);
+        } catch (RuntimeException e) {
+            recordFailure(e);
+        }
+    }
+
+    private boolean offer(FilteredObserver filtered, long version, float temperature, float humidity, float pressure) {
+        try {
+            return filtered.offer(version, temperature, humidity, pressure);
+        } catch (RuntimeException e) {
+            recordFailure(e);
+            return false;
         }
     }
 
+    // Only the publishing thread writes these.
+    private void recordFailure(RuntimeException e) {
+        lastFailure = e;
+        failures++;
+    }
+
+    // Observer updates that threw. Each one only lost that observer's delivery.
+    public long getFailureCount() {
+        return failures;
+    }
+
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    private static int changedFields(float oldTemperature, float oldHumidity, float oldPressure,
+                                     float temperature, float humidity, float pressure) {
+        int changed = 0;
+        if (Float.compare(oldTemperature, temperature) != 0) {
+            changed |= WeatherField.TEMPERATURE.bit();
+        }
+        if (Float.compare(oldHumidity, humidity) != 0) {
+            changed |= WeatherField.HUMIDITY.bit();
+        }
+        if (Float.compare(oldPressure, pressure) != 0) {
+            changed |= WeatherField.PRESSURE.bit();
+        }
+        return changed;
+    }
+
     public void measurementsChanged() {
         notifyObservers();
     }
     
     public void setMeasurements(float temperature, float humidity, float pressure) {
+        this.changedFields = !measured ? ALL_FIELDS : changedFields(this.temperature, this.humidity, this.pressure,
+                temperature, humidity, pressure);
+        this.measured = true;
+        if (log != null) {
+            log.append(System.currentTimeMillis(), temperature, humidity, pressure);
+        }
+        publish(temperature, humidity, pressure);
+        measurementsChanged();
+    }   
+
+    // Publishes a whole batch with one fan-out: each observer receives a single
+    // updateBatch() call instead of one update() per reading. The last reading
+    // becomes the current state.
+    public void setMeasurementsBatch(float[] temperatures, float[] humidities, float[] pressures) {
+        setMeasurementsBatch(temperatures, humidities, pressures, 0, temperatures.length);
+    }
+
+    public void setMeasurementsBatch(MeasurementBatch batch) {
+        setMeasurementsBatch(batch.getTemperatures(), batch.getHumidities(), batch.getPressures(), 0, batch.size());
+    }
+
+    public void setMeasurementsBatch(float[] temperatures, float[] humidities, float[] pressures, int offset, int length) {
+        if (temperatures.length < offset + length || humidities.length < offset + length
+                || pressures.length < offset + length) {
+            throw new IllegalArgumentException("Measurement columns are shorter than offset + length");
+        }
+        if (length == 0) {
+            return;
+        }
+        if (log != null) {
+            long now = System.currentTimeMillis();
+            for (int i = offset; i < offset + length; i++) {
+                log.append(now, temperatures[i], humidities[i], pressures[i]);
+            }
+        }
+
+        Observer[] snapshot = observers.snapshot();
+        DispatchMetrics m = metrics;
+        for (int i = 0; i < snapshot.length; i++) {
+            Observer observer = snapshot[i];
+            if (m == null || observer instanceof AsyncObserver) {
+                deliverBatch(observer, temperatures, humidities, pressures, offset, length);
+                continue;
+            }
+            long start = System.nanoTime();
+            deliverBatch(observer, temperatures, humidities, pressures, offset, length);
+            m.metricsFor(observer, observer, null).record(System.nanoTime() - start, length);
+        }
+
+        // Field subscribers apply their thresholds reading by reading.
+        float previousTemperature = this.temperature;
+        float previousHumidity = this.humidity;
+        float previousPressure = this.pressure;
+        for (int i = offset; i < offset + length; i++) {
+            int changed = !measured && i == offset ? ALL_FIELDS : changedFields(previousTemperature,
+                    previousHumidity, previousPressure, temperatures[i], humidities[i], pressures[i]);
+            notifyFieldSubscribers(changed, temperatures[i], humidities[i], pressures[i]);
+            previousTemperature = temperatures[i];
+            previousHumidity = humidities[i];
+            previousPressure = pressures[i];
+        }
+
+        int last = offset + length - 1;
+        publish(temperatures[last], humidities[last], pressures[last]);
+        this.changedFields = 0;
+        this.measured = true;
+    }
+
+    // Seqlock write. WeatherData has a single writer (the thread publishing
+    // readings), so no lock is needed between writers.
+    private void publish(float temperature, float humidity, float pressure) {
+        long s = sequence;
+        sequence = s + 1;
+        VarHandle.storeStoreFence(); // the field writes must not move above the odd sequence
         this.temperature = temperature;
         this.humidity = humidity;
         this.pressure = pressure;
-        measurementsChanged();
-    }   
+        sequence = s + 2; // volatile write: releases the field writes
+    }
+
+    // Lock-free, consistent read of the current measurements, from any thread.
+    public WeatherSnapshot getSnapshot() {
+        return getSnapshot(new WeatherSnapshot());
+    }
+
+    // Same as getSnapshot(), but fills 'into' so pollers can read without allocating.
+    public WeatherSnapshot getSnapshot(WeatherSnapshot into) {
+        while (true) {
+            long before = sequence;
+            if ((before & 1) == 0) {
+                float t = temperature;
+                float h = humidity;
+                float p = pressure;
+                VarHandle.loadLoadFence(); // the field reads must not move below the re-check
+                if (sequence == before) {
+                    into.set(t, h, p, before >>> 1);
+                    return into;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
 }
@@ -0,0 +1,22 @@
+// The individual measurements an observer can subscribe to.
+public enum WeatherField {
+    TEMPERATURE,
+    HUMIDITY,
+    PRESSURE;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    // Picks this field's value out of a reading.
+    public float select(float temperature, float humidity, float pressure) {
+        switch (this) {
+            case TEMPERATURE:
+                return temperature;
+            case HUMIDITY:
+                return humidity;
+            default:
+                return pressure;
+        }
+    }
+}
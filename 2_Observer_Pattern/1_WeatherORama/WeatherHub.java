@@ -0,0 +1,313 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hosts one WeatherData per station and spreads the stations over a fixed
+ * set of worker threads ("shards").
+ *
+ * Every station belongs to exactly one shard, chosen from its id, and only
+ * that shard's thread ever calls setMeasurements() on it (single writer).
+ * Shards share nothing on the hot path, so throughput grows with the
+ * number of shards until the cores run out.
+ *
+ * publish() can be called from any thread. It copies the reading into the
+ * shard's primitive ring buffer and blocks only when that buffer is full.
+ * Observers run on the shard thread that owns their station. An observer
+ * that throws only loses its own delivery of that reading: every other
+ * observer still gets it, the failure is counted (getFailureCount()), and
+ * the shard carries on.
+ */
+public class WeatherHub implements AutoCloseable {
+    private final Shard[] shards;
+    private final Map<Integer, WeatherData> stations = new ConcurrentHashMap<Integer, WeatherData>();
+    private volatile StationObserver[] allStationObservers = new StationObserver[0];
+
+    public WeatherHub(int shardCount, int queueCapacity) {
+        if (shardCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("shardCount and queueCapacity must be at least 1");
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(this, queueCapacity);
+            Thread worker = new Thread(shards[i], "weather-shard-" + i);
+            worker.setDaemon(true);
+            shards[i].worker = worker;
+            worker.start();
+        }
+    }
+
+    public void publish(int stationId, float temperature, float humidity, float pressure) {
+        shardFor(stationId).enqueue(stationId, temperature, humidity, pressure);
+    }
+
+    // The WeatherData of a station, created on first use.
+    public WeatherData getStation(int stationId) {
+        return stations.computeIfAbsent(stationId, id -> new WeatherData());
+    }
+
+    public void subscribe(int stationId, Observer observer) {
+        getStation(stationId).registerObserver(observer);
+    }
+
+    public void subscribe(int[] stationIds, StationObserver observer) {
+        for (int stationId : stationIds) {
+            getStation(stationId).registerObserver(
+                    (temperature, humidity, pressure) -> observer.update(stationId, temperature, humidity, pressure));
+        }
+    }
+
+    public synchronized void subscribeAll(StationObserver observer) {
+        StationObserver[] current = allStationObservers;
+        StationObserver[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = observer;
+        allStationObservers = next;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    // Total readings processed so far, across all shards.
+    public long getProcessedCount() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.processed;
+        }
+        return total;
+    }
+
+    // Observer deliveries that threw: station observers (counted by each
+    // station's WeatherData) plus subscribeAll() observers (counted by the shards).
+    public long getFailureCount() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.failures;
+        }
+        for (WeatherData station : stations.values()) {
+            total += station.getFailureCount();
+        }
+        return total;
+    }
+
+    // The most recent failure counted by any shard (null if none). A single
+    // station's own failures are in getStation(id).getLastFailure().
+    public RuntimeException getLastFailure() {
+        RuntimeException last = null;
+        long lastAt = Long.MIN_VALUE;
+        for (Shard shard : shards) {
+            RuntimeException e = shard.lastFailure;
+            if (e != null && shard.lastFailureAt > lastAt) {
+                last = e;
+                lastAt = shard.lastFailureAt;
+            }
+        }
+        return last;
+    }
+
+    // Drains every queued reading, then stops the shard threads.
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Shard shardFor(int stationId) {
+        // Mix the bits so that consecutive station ids spread evenly.
+        int hash = stationId * 0x9E3779B9;
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    // Runs on the station's shard. WeatherData catches its own observers'
+    // failures; the hub-wide observers are guarded one by one here.
+    private void dispatch(Shard shard, WeatherData station, int stationId, float temperature, float humidity,
+                          float pressure) {
+        station.setMeasurements(temperature, humidity, pressure);
+        StationObserver[] observers = allStationObservers;
+        for (int i = 0; i < observers.length; i++) {
+            try {
+                observers[i].update(stationId, temperature, humidity, pressure);
+            } catch (RuntimeException e) {
+                shard.recordFailure(e);
+            }
+        }
+    }
+
+    // One worker thread plus its bounded queue of readings, stored column-wise.
+    private static class Shard implements Runnable {
+        private final WeatherHub hub;
+        private final int[] stationIds;
+        private final float[] temperatures;
+        private final float[] humidities;
+        private final float[] pressures;
+        private int head;
+        private int count;
+        private boolean stopped;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+
+        private Thread worker;
+        private volatile long processed;
+        private volatile long failures;
+        private volatile RuntimeException lastFailure;
+        private volatile long lastFailureAt;
+
+        // This shard's stations, resolved once each: an int-keyed open-addressing
+        // table, so the hot path neither boxes the id nor touches the shared map.
+        // Only the worker thread uses it.
+        private int[] cachedIds = new int[16];
+        private WeatherData[] cachedStations = new WeatherData[16];
+        private int cachedCount;
+
+        Shard(WeatherHub hub, int capacity) {
+            this.hub = hub;
+            stationIds = new int[capacity];
+            temperatures = new float[capacity];
+            humidities = new float[capacity];
+            pressures = new float[capacity];
+        }
+
+        void enqueue(int stationId, float temperature, float humidity, float pressure) {
+            lock.lock();
+            try {
+                // Re-checked after every wait: close() may have run meanwhile, and a
+                // reading accepted after the worker exits would be lost.
+                while (true) {
+                    if (stopped) {
+                        throw new IllegalStateException("WeatherHub is closed");
+                    }
+                    if (count < stationIds.length) {
+                        break;
+                    }
+                    notFull.awaitUninterruptibly();
+                }
+                int tail = (head + count) % stationIds.length;
+                stationIds[tail] = stationId;
+                temperatures[tail] = temperature;
+                humidities[tail] = humidity;
+                pressures[tail] = pressure;
+                if (count++ == 0) {
+                    notEmpty.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void stop() {
+            lock.lock();
+            try {
+                stopped = true;
+                notEmpty.signal();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            // Readings are copied out in chunks so the lock is taken once per chunk, not per reading.
+            int capacity = stationIds.length;
+            int[] batchIds = new int[capacity];
+            float[] batchTemperatures = new float[capacity];
+            float[] batchHumidities = new float[capacity];
+            float[] batchPressures = new float[capacity];
+            while (true) {
+                int n;
+                lock.lock();
+                try {
+                    while (count == 0 && !stopped) {
+                        notEmpty.awaitUninterruptibly();
+                    }
+                    if (count == 0) {
+                        return;
+                    }
+                    n = count;
+                    for (int i = 0; i < n; i++) {
+                        int index = (head + i) % capacity;
+                        batchIds[i] = stationIds[index];
+                        batchTemperatures[i] = temperatures[index];
+                        batchHumidities[i] = humidities[index];
+                        batchPressures[i] = pressures[index];
+                    }
+                    head = (head + n) % capacity;
+                    count = 0;
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                for (int i = 0; i < n; i++) {
+                    int stationId = batchIds[i];
+                    try {
+                        hub.dispatch(this, station(stationId), stationId,
+                                batchTemperatures[i], batchHumidities[i], batchPressures[i]);
+                    } catch (RuntimeException e) {
+                        // Observers are already guarded one by one; this is the last
+                        // line of defence. A dead worker would leave every publisher
+                        // of this shard blocked on a full queue, so just count it.
+                        recordFailure(e);
+                    }
+                }
+                processed += n;
+            }
+        }
+
+        // Only the worker thread writes these.
+        void recordFailure(RuntimeException e) {
+            lastFailure = e;
+            lastFailureAt = System.nanoTime();
+            failures++;
+        }
+
+        private WeatherData station(int stationId) {
+            int mask = cachedIds.length - 1;
+            int index = (stationId * 0x9E3779B9) & mask;
+            WeatherData station;
+            while ((station = cachedStations[index]) != null) {
+                if (cachedIds[index] == stationId) {
+                    return station;
+                }
+                index = (index + 1) & mask;
+            }
+            station = hub.getStation(stationId);
+            cachedIds[index] = stationId;
+            cachedStations[index] = station;
+            if (++cachedCount * 2 > cachedIds.length) {
+                growCache();
+            }
+            return station;
+        }
+
+        private void growCache() {
+            int[] oldIds = cachedIds;
+            WeatherData[] oldStations = cachedStations;
+            cachedIds = new int[oldIds.length * 2];
+            cachedStations = new WeatherData[oldIds.length * 2];
+            int mask = cachedIds.length - 1;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldStations[i] != null) {
+                    int index = (oldIds[i] * 0x9E3779B9) & mask;
+                    while (cachedStations[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    cachedIds[index] = oldIds[i];
+                    cachedStations[index] = oldStations[i];
+                }
+            }
+        }
+    }
+}
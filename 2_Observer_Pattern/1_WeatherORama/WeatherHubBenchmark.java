@@ -0,0 +1,72 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load generator for WeatherHub: N producer threads publish readings for
+ * random stations into a hub with N shards, for 1, 2, 4 ... up to the number
+ * of available cores. Each station has a small observer that does a few
+ * floating point operations per reading.
+ *
+ * Run with: java WeatherHubBenchmark [stations] [seconds]
+ */
+public class WeatherHubBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int stationCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        List<Integer> shardCounts = new ArrayList<Integer>();
+        for (int n = 1; n < cores; n *= 2) {
+            shardCounts.add(n);
+        }
+        shardCounts.add(cores);
+
+        run(stationCount, cores, 1); // warm-up
+        System.out.println("Stations: " + stationCount + ", duration: " + seconds + "s, cores: " + cores);
+        for (int shards : shardCounts) {
+            long processed = run(stationCount, shards, seconds);
+            System.out.println(shards + " shard(s): " + (processed / seconds) + " readings/sec");
+        }
+    }
+
+    private static long run(int stationCount, int shardCount, int seconds) throws InterruptedException {
+        WeatherHub hub = new WeatherHub(shardCount, 8192);
+        for (int id = 0; id < stationCount; id++) {
+            hub.subscribe(id, new DewPointObserver());
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] producers = new Thread[shardCount];
+        for (int p = 0; p < shardCount; p++) {
+            producers[p] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    hub.publish(random.nextInt(stationCount), 60 + random.nextInt(40), random.nextInt(100), 29.5f);
+                }
+            });
+            producers[p].start();
+        }
+
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        hub.close();
+        return hub.getProcessedCount();
+    }
+
+    // A little arithmetic per reading, so shards do real work.
+    private static class DewPointObserver implements Observer {
+        private double dewPoint;
+
+        @Override
+        public void update(float temp, float humidity, float pressure) {
+            double celsius = (temp - 32) / 1.8;
+            dewPoint = celsius - (100 - humidity) / 5.0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A throwing observer must only lose its own deliveries: the healthy observer
+// on the same station, and a subscribeAll() observer, still get every reading.
+//
+// Run with: java WeatherHubFailureTest   (exits with status 1 on failure)
+public class WeatherHubFailureTest {
+
+    public static void main(String[] args) {
+        int readings = 1_000;
+        AtomicInteger healthy = new AtomicInteger();
+        AtomicInteger everyStation = new AtomicInteger();
+
+        WeatherHub hub = new WeatherHub(2, 64);
+        hub.subscribe(7, (temperature, humidity, pressure) -> {
+            throw new IllegalStateException("broken display");
+        });
+        hub.subscribe(7, (temperature, humidity, pressure) -> healthy.incrementAndGet());
+        hub.subscribeAll((stationId, temperature, humidity, pressure) -> {
+            throw new IllegalStateException("broken feed");
+        });
+        hub.subscribeAll((stationId, temperature, humidity, pressure) -> everyStation.incrementAndGet());
+        for (int i = 0; i < readings; i++) {
+            hub.publish(7, 20 + i % 10, 60, 30.4f);
+        }
+        hub.close();
+
+        check(healthy.get() == readings, "healthy station observer got " + healthy.get() + "/" + readings);
+        check(everyStation.get() == readings, "healthy subscribeAll observer got " + everyStation.get() + "/" + readings);
+        check(hub.getStation(7).getFailureCount() == readings,
+                "station counted " + hub.getStation(7).getFailureCount() + " failures, expected " + readings);
+        check(hub.getFailureCount() == 2L * readings,
+                "hub counted " + hub.getFailureCount() + " failures, expected " + 2 * readings);
+        check(hub.getProcessedCount() == readings, "hub processed " + hub.getProcessedCount() + "/" + readings);
+        System.out.println("OK: one throwing observer only lost its own deliveries");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * A consistent copy of WeatherData's measurements, plus the version they
+ * were published as (it increases by one per published reading or batch).
+ *
+ * Produced by WeatherData.getSnapshot(). Pollers that read at very high
+ * rates can pass the same instance back in to avoid allocating.
+ */
+public class WeatherSnapshot {
+    private float temperature;
+    private float humidity;
+    private float pressure;
+    private long version;
+
+    void set(float temperature, float humidity, float pressure, long version) {
+        this.temperature = temperature;
+        this.humidity = humidity;
+        this.pressure = pressure;
+        this.version = version;
+    }
+
+    public float getTemperature() {
+        return temperature;
+    }
+
+    public float getHumidity() {
+        return humidity;
+    }
+
+    public float getPressure() {
+        return pressure;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "v" + version + ": " + temperature + "F, " + humidity + "%, " + pressure;
+    }
+}
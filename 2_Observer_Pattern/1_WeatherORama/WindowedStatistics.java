@@ -0,0 +1,192 @@
+/**
+ * Sliding-window min/max/average over float readings.
+ *
+ * Everything lives in preallocated primitive ring buffers, so add() never
+ * allocates:
+ *   - values/timestamps hold the readings currently in the window;
+ *   - maxDeque/minDeque are monotonic deques of sequence numbers, which give
+ *     O(1) amortized min and max;
+ *   - the running sum uses Neumaier (compensated) summation, so evicting and
+ *     adding millions of readings does not drift.
+ *
+ * The window is bounded by time (windowNanos) AND by capacity: once the
+ * buffer is full, the oldest reading is evicted even if it is still inside
+ * the time window. Size the capacity for the expected reading rate;
+ * isTruncated() tells when the window currently covers less than windowNanos
+ * because of it.
+ *
+ * Not thread-safe: it is meant to be owned by one observer. Hand other
+ * threads a snapshot() instead.
+ */
+public class WindowedStatistics {
+    private final long windowNanos;
+    private final int mask;
+
+    private final float[] values;
+    private final long[] timestamps;
+    private long head; // sequence number of the oldest reading in the window
+    private long tail; // sequence number the next reading will get
+
+    private final long[] maxDeque;
+    private long maxHead;
+    private long maxTail;
+    private final long[] minDeque;
+    private long minHead;
+    private long minTail;
+
+    private double sum;
+    private double compensation;
+
+    private long now;
+    private boolean evictedForCapacity;
+    private long lastCapacityEviction; // timestamp of the newest reading evicted while still in the window
+
+    public WindowedStatistics(long windowNanos, int capacity) {
+        if (windowNanos <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("window and capacity must be positive");
+        }
+        // Round up to a power of two so ring indices are a mask, not a modulo.
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.windowNanos = windowNanos;
+        this.mask = size - 1;
+        values = new float[size];
+        timestamps = new long[size];
+        maxDeque = new long[size];
+        minDeque = new long[size];
+    }
+
+    public void add(long timestampNanos, float value) {
+        advanceTo(timestampNanos);
+        if (tail - head > mask) {
+            evictedForCapacity = true;
+            lastCapacityEviction = timestamps[(int) (head & mask)];
+            evictOldest();
+        }
+
+        int index = (int) (tail & mask);
+        values[index] = value;
+        timestamps[index] = timestampNanos;
+
+        // Anything smaller than the new value can never be the max again (and vice versa for min).
+        while (maxTail > maxHead && valueAt(maxDeque[(int) ((maxTail - 1) & mask)]) <= value) {
+            maxTail--;
+        }
+        maxDeque[(int) (maxTail++ & mask)] = tail;
+        while (minTail > minHead && valueAt(minDeque[(int) ((minTail - 1) & mask)]) >= value) {
+            minTail--;
+        }
+        minDeque[(int) (minTail++ & mask)] = tail;
+
+        addToSum(value);
+        tail++;
+    }
+
+    // Evicts every reading older than the window, relative to 'nowNanos'.
+    public void advanceTo(long nowNanos) {
+        now = nowNanos;
+        while (tail > head && nowNanos - timestamps[(int) (head & mask)] > windowNanos) {
+            evictOldest();
+        }
+    }
+
+    // True while a reading that is still inside the time window had to be
+    // evicted for capacity: the stats then cover a shorter span than windowNanos.
+    public boolean isTruncated() {
+        return evictedForCapacity && now - lastCapacityEviction <= windowNanos;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(getCount(), getMin(), getMax(), getAverage(), isTruncated());
+    }
+
+    public int getCount() {
+        return (int) (tail - head);
+    }
+
+    public float getMax() {
+        return maxTail > maxHead ? valueAt(maxDeque[(int) (maxHead & mask)]) : Float.NaN;
+    }
+
+    public float getMin() {
+        return minTail > minHead ? valueAt(minDeque[(int) (minHead & mask)]) : Float.NaN;
+    }
+
+    public double getAverage() {
+        long count = tail - head;
+        return count == 0 ? Double.NaN : (sum + compensation) / count;
+    }
+
+    private void evictOldest() {
+        addToSum(-values[(int) (head & mask)]);
+        if (maxTail > maxHead && maxDeque[(int) (maxHead & mask)] == head) {
+            maxHead++;
+        }
+        if (minTail > minHead && minDeque[(int) (minHead & mask)] == head) {
+            minHead++;
+        }
+        head++;
+        if (head == tail) {
+            // Empty window: start from an exact zero instead of carrying rounding error.
+            sum = 0.0;
+            compensation = 0.0;
+        }
+    }
+
+    private float valueAt(long sequence) {
+        return values[(int) (sequence & mask)];
+    }
+
+    // Neumaier summation: tracks the low-order bits lost by each addition.
+    private void addToSum(double x) {
+        double t = sum + x;
+        if (Math.abs(sum) >= Math.abs(x)) {
+            compensation += (sum - t) + x;
+        } else {
+            compensation += (x - t) + sum;
+        }
+        sum = t;
+    }
+
+    // An immutable copy of the window's statistics, safe to pass between threads.
+    public static final class Snapshot {
+        private final int count;
+        private final float min;
+        private final float max;
+        private final double average;
+        private final boolean truncated;
+
+        Snapshot(int count, float min, float max, double average, boolean truncated) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.average = average;
+            this.truncated = truncated;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public float getMin() {
+            return min;
+        }
+
+        public float getMax() {
+            return max;
+        }
+
+        public double getAverage() {
+            return average;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return count + " readings, avg/max/min = " + average + "/" + max + "/" + min
+                    + (truncated ? " (truncated by capacity)" : "");
+        }
+    }
+}
@@ -3,12 +3,30 @@ public abstract class Beverage {
     // It defines the interface that both concrete components (Espresso)
     // and decorators (Mocha) must strictly follow.
 
-    public String description = "Unknown Beverage";
+    // IMMUTABLE: set once by the constructor. A beverage (and every decorator
+    // wrapping it) can therefore be shared between threads without locking.
+    private final String description;
+
+    protected Beverage(String description) {
+        this.description = description;
+    }
+
+    protected Beverage() {
+        this("Unknown Beverage");
+    }
 
     public String getDescription() {
         return description;
     }
 
     // The cost method is abstract. Subclasses MUST define their own cost.
-    public abstract double cost();
-}
\ No newline at end of file
+    // Prices are exact 'long' cents: adding doubles layer by layer drifts
+    // (e.g. 1.2900000000000003), and BigDecimal would allocate on every layer.
+    public abstract long costInCents();
+
+    // ADAPTER for existing callers that expect dollars as a double.
+    // The sum is done exactly in cents; only the final result is converted.
+    public double cost() {
+        return costInCents() / 100.0;
+    }
+}
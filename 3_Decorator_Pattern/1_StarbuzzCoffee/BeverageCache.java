@@ -0,0 +1,205 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// FLYWEIGHT cache of canonical beverages.
+//
+// Most peak-hour orders are the same few dozen drinks. Because decorated
+// beverages are immutable, one shared instance per configuration can serve
+// every order for it, instead of a fresh decorator chain per order.
+//
+// The key is (base beverage class, MULTISET of condiment classes), so
+// "Soy, Mocha" and "Mocha, Soy" share an entry. Drinks built by get() add
+// their condiments in a canonical order (sorted by class name); that changes
+// the description order, never the price.
+//
+// Reads are lock-free (ConcurrentHashMap). The size is bounded with an
+// approximate LRU: every entry remembers the "clock" (number of inserts) at
+// its last hit, and when the cache overflows, one scan evicts the least
+// recently used 10%, so the scan cost is spread over many inserts.
+public class BeverageCache {
+    private final int maxSize;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>();
+    private final AtomicLong clock = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BeverageCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    // The shared beverage for this configuration, built on the first request.
+    @SafeVarargs
+    public final Beverage get(Class<? extends Beverage> base, Class<? extends CondimentDecorator>... condiments) {
+        // Copied element by element: the varargs array itself never escapes.
+        Class<?>[] sorted = new Class<?>[condiments.length];
+        for (int i = 0; i < condiments.length; i++) {
+            sorted[i] = condiments[i];
+        }
+        Arrays.sort(sorted, Comparator.comparing(Class::getName));
+        Key key = new Key(base, sorted);
+
+        Beverage cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        return insert(key, build(base, sorted));
+    }
+
+    // Returns the shared equivalent of an already built beverage, registering
+    // it as the canonical instance if its configuration is new.
+    public Beverage canonicalize(Beverage beverage) {
+        List<Class<?>> condiments = new ArrayList<Class<?>>();
+        Beverage current = beverage;
+        while (current instanceof CondimentDecorator) {
+            condiments.add(current.getClass());
+            current = ((CondimentDecorator) current).beverage;
+        }
+        if (current instanceof CompiledBeverage) {
+            // Compiled drinks no longer know their condiment classes; don't share them.
+            return beverage;
+        }
+        Class<?>[] sorted = condiments.toArray(new Class<?>[0]);
+        Arrays.sort(sorted, Comparator.comparing(Class::getName));
+        Key key = new Key(current.getClass(), sorted);
+
+        Beverage cached = lookup(key);
+        return cached != null ? cached : insert(key, beverage);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Beverage lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        hits.increment();
+        long now = clock.get();
+        if (entry.lastAccess != now) { // avoid writing a shared cache line on every hit
+            entry.lastAccess = now;
+        }
+        return entry.beverage;
+    }
+
+    private Beverage insert(Key key, Beverage beverage) {
+        misses.increment();
+        Entry entry = new Entry(beverage, clock.incrementAndGet());
+        Entry winner = entries.putIfAbsent(key, entry);
+        if (winner != null) {
+            return winner.beverage; // another thread built it first
+        }
+        if (entries.size() > maxSize) {
+            evict();
+        }
+        return beverage;
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            int excess = entries.size() - maxSize;
+            if (excess <= 0) {
+                return;
+            }
+            int toEvict = Math.max(excess, maxSize / 10);
+            // lastAccess keeps changing under concurrent hits, so sort a copy of
+            // the values: a comparator reading the live field could contradict
+            // itself mid-sort and make TimSort throw.
+            List<Map.Entry<Key, Entry>> all = new ArrayList<Map.Entry<Key, Entry>>(entries.entrySet());
+            long[] accessed = new long[all.size()];
+            for (int i = 0; i < accessed.length; i++) {
+                accessed[i] = all.get(i).getValue().lastAccess;
+            }
+            long[] sorted = accessed.clone();
+            Arrays.sort(sorted);
+            long cutoff = sorted[Math.min(toEvict, sorted.length) - 1];
+            int evicted = 0;
+            for (int i = 0; i < accessed.length && evicted < toEvict; i++) {
+                if (accessed[i] <= cutoff && entries.remove(all.get(i).getKey(), all.get(i).getValue())) {
+                    evictions.increment();
+                    evicted++;
+                }
+            }
+        }
+    }
+
+    private static Beverage build(Class<? extends Beverage> base, Class<?>[] condiments) {
+        try {
+            Beverage beverage = base.getDeclaredConstructor().newInstance();
+            for (Class<?> condiment : condiments) {
+                beverage = (Beverage) condiment.getDeclaredConstructor(Beverage.class).newInstance(beverage);
+            }
+            return beverage;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot build " + base.getSimpleName() + " with "
+                    + Arrays.toString(condiments), e);
+        }
+    }
+
+    private static final class Key {
+        private final Class<?> base;
+        private final Class<?>[] condiments; // sorted by class name
+        private final int hash;
+
+        Key(Class<?> base, Class<?>[] condiments) {
+            this.base = base;
+            this.condiments = condiments;
+            this.hash = 31 * base.hashCode() + Arrays.hashCode(condiments);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return base == other.base && Arrays.equals(condiments, other.condiments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final Beverage beverage;
+        private volatile long lastAccess;
+
+        Entry(Beverage beverage, long lastAccess) {
+            this.beverage = beverage;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
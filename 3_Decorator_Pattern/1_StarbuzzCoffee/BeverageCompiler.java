@@ -0,0 +1,64 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns a decorated Beverage into a flat CompiledBeverage.
+//
+// Usage:
+//   Beverage order = new Whip(new Mocha(new Mocha(new DarkRoast())));
+//   Beverage fast = BeverageCompiler.compile(order); // same cost() and getDescription()
+//
+// The chain is walked once, at compile time. Compile once per order, then
+// call cost()/getDescription() on the result as often as needed.
+public class BeverageCompiler {
+
+    public static CompiledBeverage compile(Beverage beverage) {
+        if (beverage instanceof CompiledBeverage) {
+            return (CompiledBeverage) beverage;
+        }
+
+        // Walk from the outermost decorator down to the base beverage.
+        List<CondimentDecorator> layers = new ArrayList<CondimentDecorator>();
+        Beverage current = beverage;
+        while (current instanceof CondimentDecorator) {
+            CondimentDecorator condiment = (CondimentDecorator) current;
+            layers.add(condiment);
+            current = condiment.beverage;
+        }
+
+        // The base may itself be compiled (condiments added on top of a compiled drink).
+        List<String> names = new ArrayList<String>();
+        List<Long> cents = new ArrayList<Long>();
+        List<Integer> priceIds = new ArrayList<Integer>();
+        String baseDescription;
+        long baseCents;
+        if (current instanceof CompiledBeverage) {
+            CompiledBeverage compiled = (CompiledBeverage) current;
+            baseDescription = compiled.getBaseDescription();
+            baseCents = compiled.getBaseCents();
+            for (int i = 0; i < compiled.getCondimentCount(); i++) {
+                names.add(compiled.getCondimentName(i));
+                cents.add(compiled.getCondimentCents(i));
+                priceIds.add(compiled.getCondimentPriceId(i));
+            }
+        } else {
+            baseDescription = current.getDescription();
+            baseCents = current.costInCents();
+        }
+
+        // Innermost condiment first.
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            names.add(layers.get(i).getCondimentName());
+            cents.add(layers.get(i).getCondimentCents());
+            priceIds.add(layers.get(i).getPriceId());
+        }
+
+        String[] condimentNames = names.toArray(new String[0]);
+        long[] condimentCents = new long[cents.size()];
+        int[] condimentPriceIds = new int[cents.size()];
+        for (int i = 0; i < condimentCents.length; i++) {
+            condimentCents[i] = cents.get(i);
+            condimentPriceIds[i] = priceIds.get(i);
+        }
+        return new CompiledBeverage(baseDescription, baseCents, condimentNames, condimentCents, condimentPriceIds);
+    }
+}
@@ -0,0 +1,67 @@
+// Compares the FIRST costInCents() + getDescription() evaluation of a
+// decorator chain against the same drink compiled by BeverageCompiler, for
+// chain depths of 1 to 20 condiments. (Both cache their results, so repeated
+// calls are cheap either way; the first evaluation is where recursion and
+// O(n^2) concatenation hurt.) Drinks are built and compiled outside the
+// timed section.
+//
+// Run with: java BeverageCompilerBenchmark [drinks]
+public class BeverageCompilerBenchmark {
+    private static long costSink;
+    private static int lengthSink;
+
+    public static void main(String[] args) {
+        int drinks = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int[] depths = {1, 5, 10, 20};
+
+        for (int round = 0; round < 3; round++) {
+            for (int depth : depths) {
+                Beverage[] chains = new Beverage[drinks];
+                Beverage[] compiled = new Beverage[drinks];
+                for (int i = 0; i < drinks; i++) {
+                    chains[i] = buildChain(depth);
+                    compiled[i] = BeverageCompiler.compile(buildChain(depth));
+                }
+                if (chains[0].costInCents() != compiled[0].costInCents()
+                        || !chains[0].getDescription().equals(compiled[0].getDescription())) {
+                    throw new IllegalStateException("Compiled beverage differs from its chain at depth " + depth);
+                }
+
+                long chainNanos = time(chains);
+                long compiledNanos = time(compiled);
+                if (round == 2) {
+                    System.out.printf("depth %2d: chain %7.1f ns, compiled %7.1f ns, speedup %.1fx%n", depth,
+                            (double) chainNanos / drinks, (double) compiledNanos / drinks,
+                            (double) chainNanos / compiledNanos);
+                }
+            }
+        }
+    }
+
+    private static Beverage buildChain(int depth) {
+        Beverage beverage = new DarkRoast();
+        for (int i = 0; i < depth; i++) {
+            switch (i % 3) {
+                case 0:
+                    beverage = new Mocha(beverage);
+                    break;
+                case 1:
+                    beverage = new Soy(beverage);
+                    break;
+                default:
+                    beverage = new Whip(beverage);
+                    break;
+            }
+        }
+        return beverage;
+    }
+
+    private static long time(Beverage[] beverages) {
+        long start = System.nanoTime();
+        for (int i = 1; i < beverages.length; i++) {
+            costSink += beverages[i].costInCents();
+            lengthSink += beverages[i].getDescription().length();
+        }
+        return System.nanoTime() - start;
+    }
+}
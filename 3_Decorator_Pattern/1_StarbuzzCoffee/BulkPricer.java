@@ -0,0 +1,150 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+// Prices whole OrderBatches at once, for end-of-day reconciliation.
+//
+// Instead of building a decorator chain per order and calling cost() on it,
+// prices are looked up ONCE per batch into two small arrays (base cents and
+// condiment cents, by menu id). Each order is then a few array reads and
+// multiply-adds. The batch is split with fork/join: every task prices a range
+// of orders into its own report arrays, and results are merged going back up,
+// so threads never share a counter.
+//
+// Usage:
+//   PricingReport report = BulkPricer.price(orders);
+//   long[] totals = new long[orders.size()];
+//   BulkPricer.price(orders, totals, ForkJoinPool.commonPool());
+public class BulkPricer {
+    // Orders per leaf task: large enough to amortize task overhead.
+    private static final int LEAF_SIZE = 1 << 16;
+
+    public static PricingReport price(OrderBatch orders) {
+        return price(orders, null, ForkJoinPool.commonPool());
+    }
+
+    // 'totals' (optional) receives each order's price in cents.
+    public static PricingReport price(OrderBatch orders, long[] totals, ForkJoinPool pool) {
+        if (totals != null && totals.length < orders.size()) {
+            throw new IllegalArgumentException("totals is shorter than the batch");
+        }
+        // One price snapshot for the whole batch, even if the catalog reloads meanwhile.
+        PriceTask task = new PriceTask(orders, Menu.getBaseCents(), Menu.getCondimentCents(), totals, 0, orders.size());
+        Partial result = pool.invoke(task);
+        return new PricingReport(orders.size(), result.ordersPerBase, result.revenuePerBase,
+                result.unitsPerCondiment, result.revenuePerCondiment);
+    }
+
+    // Description of one order, e.g. "Dark Roast Coffee, Mocha, Mocha, Whip"
+    // (condiments in menu order). Built on demand: materializing strings for
+    // every order of a big batch would dwarf the pricing itself.
+    public static String describe(OrderBatch orders, int order) {
+        StringBuilder out = new StringBuilder(64);
+        out.append(Menu.getBaseDescription(orders.getBaseId(order)));
+        for (int k = 0; k < Menu.getCondimentCount(); k++) {
+            for (int n = orders.getCondimentCount(order, k); n > 0; n--) {
+                out.append(", ").append(Menu.getCondimentName(k));
+            }
+        }
+        return out.toString();
+    }
+
+    // Descriptions for orders [from, to), built in parallel.
+    public static String[] describe(OrderBatch orders, int from, int to) {
+        String[] descriptions = new String[to - from];
+        IntStream.range(from, to).parallel().forEach(i -> descriptions[i - from] = describe(orders, i));
+        return descriptions;
+    }
+
+    // Per-range report arrays, merged pairwise by the fork/join tree.
+    private static final class Partial {
+        final long[] ordersPerBase;
+        final long[] revenuePerBase;
+        final long[] unitsPerCondiment;
+        final long[] revenuePerCondiment;
+
+        Partial(int bases, int condiments) {
+            ordersPerBase = new long[bases];
+            revenuePerBase = new long[bases];
+            unitsPerCondiment = new long[condiments];
+            revenuePerCondiment = new long[condiments];
+        }
+
+        Partial merge(Partial other) {
+            for (int i = 0; i < ordersPerBase.length; i++) {
+                ordersPerBase[i] += other.ordersPerBase[i];
+                revenuePerBase[i] += other.revenuePerBase[i];
+            }
+            for (int k = 0; k < unitsPerCondiment.length; k++) {
+                unitsPerCondiment[k] += other.unitsPerCondiment[k];
+                revenuePerCondiment[k] += other.revenuePerCondiment[k];
+            }
+            return this;
+        }
+    }
+
+    private static final class PriceTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final OrderBatch orders;
+        private final long[] baseCents;
+        private final long[] condimentCents;
+        private final long[] totals;
+        private final int from;
+        private final int to;
+
+        PriceTask(OrderBatch orders, long[] baseCents, long[] condimentCents, long[] totals, int from, int to) {
+            this.orders = orders;
+            this.baseCents = baseCents;
+            this.condimentCents = condimentCents;
+            this.totals = totals;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_SIZE) {
+                return priceRange();
+            }
+            int middle = (from + to) >>> 1;
+            PriceTask left = new PriceTask(orders, baseCents, condimentCents, totals, from, middle);
+            PriceTask right = new PriceTask(orders, baseCents, condimentCents, totals, middle, to);
+            left.fork();
+            Partial rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private Partial priceRange() {
+            byte[] baseIds = orders.getBaseIds();
+            byte[] counts = orders.getCondimentCounts();
+            int condiments = condimentCents.length;
+            Partial partial = new Partial(baseCents.length, condiments);
+            long[] ordersPerBase = partial.ordersPerBase;
+            long[] revenuePerBase = partial.revenuePerBase;
+            long[] unitsPerCondiment = partial.unitsPerCondiment;
+            long[] revenuePerCondiment = partial.revenuePerCondiment;
+
+            for (int i = from; i < to; i++) {
+                int base = baseIds[i];
+                long total = baseCents[base];
+                ordersPerBase[base]++;
+                revenuePerBase[base] += total;
+                int row = i * condiments;
+                for (int k = 0; k < condiments; k++) {
+                    int n = counts[row + k];
+                    if (n != 0) {
+                        long cents = n * condimentCents[k];
+                        total += cents;
+                        unitsPerCondiment[k] += n;
+                        revenuePerCondiment[k] += cents;
+                    }
+                }
+                if (totals != null) {
+                    totals[i] = total;
+                }
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Throughput of BulkPricer on random order batches (seeded, 0-4 of each
+// condiment), for 1M and 10M orders by default:
+//   - chain:      a decorator chain built and priced per order (the
+//                 StarBuzzCoffee way), on at most 1M orders;
+//   - columnar/1: BulkPricer on a single-thread pool;
+//   - columnar/N: BulkPricer on the common pool (all cores).
+// 100M orders need about 400 MB for the batch plus the totals array:
+//   java -Xmx2g BulkPricerBenchmark 1000000 10000000 100000000
+//
+// Run with: java BulkPricerBenchmark [orders...]
+public class BulkPricerBenchmark {
+    private static final int CHAIN_LIMIT = 1_000_000;
+    private static long sink;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {1_000_000, 10_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool all = ForkJoinPool.commonPool();
+        System.out.println("threads: " + all.getParallelism());
+
+        for (int size : sizes) {
+            OrderBatch orders = randomOrders(size);
+            long[] totals = new long[size];
+
+            // Same answer both ways before timing anything.
+            long expected = 0;
+            for (int i = 0; i < Math.min(size, 1000); i++) {
+                expected += buildChain(orders, i).costInCents();
+            }
+            BulkPricer.price(orders, totals, all);
+            long actual = 0;
+            for (int i = 0; i < Math.min(size, 1000); i++) {
+                actual += totals[i];
+            }
+            if (actual != expected) {
+                throw new IllegalStateException("BulkPricer disagrees with the decorator chain");
+            }
+
+            int chainOrders = Math.min(size, CHAIN_LIMIT);
+            double chainRate = 0;
+            double singleRate = 0;
+            double allRate = 0;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < chainOrders; i++) {
+                    sink += buildChain(orders, i).costInCents();
+                }
+                chainRate = chainOrders * 1e9 / (System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sink += BulkPricer.price(orders, totals, single).getTotalRevenueCents();
+                singleRate = size * 1e9 / (System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sink += BulkPricer.price(orders, totals, all).getTotalRevenueCents();
+                allRate = size * 1e9 / (System.nanoTime() - start);
+            }
+            System.out.printf("%,d orders: chain %,.0f/s, columnar/1 %,.0f/s, columnar/N %,.0f/s%n",
+                    size, chainRate, singleRate, allRate);
+        }
+        single.shutdown();
+    }
+
+    private static OrderBatch randomOrders(int size) {
+        Random random = new Random(42);
+        OrderBatch orders = new OrderBatch(size);
+        int[] counts = new int[Menu.getCondimentCount()];
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < counts.length; k++) {
+                counts[k] = random.nextInt(5);
+            }
+            orders.add(random.nextInt(Menu.getBaseCount()), counts);
+        }
+        return orders;
+    }
+
+    private static Beverage buildChain(OrderBatch orders, int order) {
+        Beverage beverage = Menu.getBase(orders.getBaseId(order));
+        for (int k = 0; k < Menu.getCondimentCount(); k++) {
+            for (int n = orders.getCondimentCount(order, k); n > 0; n--) {
+                beverage = Menu.addCondiment(k, beverage);
+            }
+        }
+        return beverage;
+    }
+}
@@ -0,0 +1,97 @@
+// A decorated Beverage flattened into arrays by BeverageCompiler.
+//
+// Instead of a linked chain (Whip -> Mocha -> Mocha -> DarkRoast) where every
+// cost()/getDescription() call recurses through one virtual call per layer,
+// we keep the base and each condiment's own name and price in flat arrays.
+// The total is summed in one loop when compiled (and again only after a
+// PriceCatalog reload), and getDescription() builds
+// the text in one pass with a single StringBuilder (instead of O(n^2) string
+// concatenation).
+//
+// Immutable: the arrays are private copies and are never modified, and the
+// description is built once and then cached.
+public final class CompiledBeverage extends Beverage {
+    private final String baseDescription;
+    private final long baseCents;
+    // Innermost condiment first, i.e. the order in which they were added.
+    private final String[] condimentNames;
+    private final long[] condimentCents;
+    // PriceCatalog ids (-1 = fixed price in condimentCents), so reloads apply here too.
+    private final int[] condimentPriceIds;
+    private final int descriptionLength;
+    private volatile PriceCatalog.Quote totalCents;
+    private String cachedDescription; // racy single-check, see CondimentDecorator
+
+    CompiledBeverage(String baseDescription, long baseCents, String[] condimentNames, long[] condimentCents,
+                     int[] condimentPriceIds) {
+        super(baseDescription);
+        this.baseDescription = baseDescription;
+        this.baseCents = baseCents;
+        this.condimentNames = condimentNames;
+        this.condimentCents = condimentCents;
+        this.condimentPriceIds = condimentPriceIds;
+        int length = baseDescription.length();
+        for (String name : condimentNames) {
+            length += 2 + name.length();
+        }
+        this.descriptionLength = length;
+        this.totalCents = sum(PriceCatalog.getVersion());
+    }
+
+    private PriceCatalog.Quote sum(long version) {
+        long total = baseCents;
+        for (int i = 0; i < condimentCents.length; i++) {
+            total += getCondimentCents(i);
+        }
+        return new PriceCatalog.Quote(version, total);
+    }
+
+    public String getDescription() {
+        String description = cachedDescription;
+        if (description == null) {
+            StringBuilder out = new StringBuilder(descriptionLength);
+            out.append(baseDescription);
+            for (String name : condimentNames) {
+                out.append(", ").append(name);
+            }
+            description = out.toString();
+            cachedDescription = description;
+        }
+        return description;
+    }
+
+    public long costInCents() {
+        long version = PriceCatalog.getVersion();
+        PriceCatalog.Quote total = totalCents;
+        if (total.version != version) {
+            total = sum(version);
+            totalCents = total;
+        }
+        return total.cents;
+    }
+
+    public int getCondimentCount() {
+        return condimentNames.length;
+    }
+
+    String getBaseDescription() {
+        return baseDescription;
+    }
+
+    long getBaseCents() {
+        return baseCents;
+    }
+
+    String getCondimentName(int index) {
+        return condimentNames[index];
+    }
+
+    long getCondimentCents(int index) {
+        int id = condimentPriceIds[index];
+        return id >= 0 ? PriceCatalog.getPrice(id) : condimentCents[index];
+    }
+
+    int getCondimentPriceId(int index) {
+        return condimentPriceIds[index];
+    }
+}
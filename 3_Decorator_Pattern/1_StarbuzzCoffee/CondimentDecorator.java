@@ -2,9 +2,60 @@
 //    (This is 'Type Matching' inheritance, not 'Behavior Inheritance').
 public abstract class CondimentDecorator extends Beverage {
 
-    // 2. We make this abstract to FORCE all decorators to re-implement it.
-    // We want decorators to modify the description (e.g. "Espresso, Mocha"),
-    // not just use the default.
-    public abstract String getDescription();
+    // The beverage we wrap. It lives here (rather than in every condiment) so
+    // that BeverageCompiler can walk a chain without knowing the condiment types.
+    // Final: a decorated beverage never changes once built.
+    final Beverage beverage;
+
+    // MEMOIZATION: because the chain is immutable, the description and cost
+    // never change, so each layer computes them once and caches them.
+    // The description uses the racy single-check idiom (like String.hashCode):
+    // a String is immutable, so a thread either sees null (and recomputes the
+    // same value) or a fully built String. The cost is published through the
+    // volatile 'cachedCost' quote, stamped with the PriceCatalog version it
+    // was computed against: a price reload makes it stale, and the next call
+    // recomputes it.
+    private String cachedDescription;
+    private volatile PriceCatalog.Quote cachedCost;
+
+    protected CondimentDecorator(Beverage beverage) {
+        this.beverage = beverage;
+    }
+
+    // 2. Every decorator modifies the description the same way (e.g. "Espresso, Mocha"),
+    // so it is implemented once here; decorators only say what THEY add.
+    public final String getDescription() {
+        String description = cachedDescription;
+        if (description == null) {
+            description = beverage.getDescription() + ", " + getCondimentName();
+            cachedDescription = description;
+        }
+        return description;
+    }
+
+    // DELEGATION: the wrapped beverage's cost plus our own part, computed once
+    // per price-catalog version.
+    public final long costInCents() {
+        long version = PriceCatalog.getVersion();
+        PriceCatalog.Quote cost = cachedCost;
+        if (cost != null && cost.version == version) {
+            return cost.cents;
+        }
+        // Stamped with the version read BEFORE computing: if prices are reloaded
+        // meanwhile, this quote is already stale and will be recomputed.
+        long cents = getCondimentCents() + beverage.costInCents();
+        cachedCost = new PriceCatalog.Quote(version, cents);
+        return cents;
+    }
+
+    // What THIS layer adds, without recursing into the wrapped beverage.
+    public abstract String getCondimentName();
+
+    public abstract long getCondimentCents();
+
+    // The PriceCatalog id behind getCondimentCents(), or -1 for a fixed price.
+    int getPriceId() {
+        return -1;
+    }
 
 }
@@ -1,10 +1,10 @@
 public class DarkRoast extends Beverage {
 
     public DarkRoast() {
-        description = "Dark Roast Coffee";
+        super("Dark Roast Coffee");
     }
     
-    public double cost() {
-        return 0.99;
+    public long costInCents() {
+        return 99;
     }
 }
@@ -1,10 +1,10 @@
 public class Espresso extends Beverage {
 
     public Espresso() {
-        description = "Espresso";
+        super("Espresso");
     }
     
-    public double cost() {
-        return 1.99;
+    public long costInCents() {
+        return 199;
     }
 }
@@ -1,10 +1,10 @@
 public class HouseBlend extends Beverage {
 
     public HouseBlend() {
-        description = "House Blend Coffee";
+        super("House Blend Coffee");
     }
     
-    public double cost() {
-        return 0.89;
+    public long costInCents() {
+        return 89;
     }
 }
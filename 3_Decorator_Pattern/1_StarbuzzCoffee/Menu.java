@@ -0,0 +1,102 @@
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+// Numbers every base beverage and condiment, so that orders can be stored as
+// small integers (see OrderBatch, BulkPricer, OrderCodec) instead of object
+// chains. Ids are positions in BASES and CONDIMENTS below: only ever APPEND
+// new items, or stored orders will decode to the wrong drink.
+public final class Menu {
+
+    // Base beverages are immutable, so one shared instance per id is enough.
+    private static final Beverage[] BASES = {
+        new Espresso(),
+        new DarkRoast(),
+        new HouseBlend(),
+    };
+
+    // Condiments, by constructor. Their classes and names are read off one
+    // sample of each below, so this list is the only place to add one.
+    private static final List<UnaryOperator<Beverage>> CONDIMENTS = List.of(
+        Mocha::new,
+        Soy::new,
+        Whip::new
+    );
+
+    private static final Class<?>[] CONDIMENT_TYPES = new Class<?>[CONDIMENTS.size()];
+    private static final String[] CONDIMENT_NAMES = new String[CONDIMENTS.size()];
+
+    static {
+        for (int i = 0; i < CONDIMENTS.size(); i++) {
+            CondimentDecorator sample = (CondimentDecorator) CONDIMENTS.get(i).apply(BASES[0]);
+            CONDIMENT_TYPES[i] = sample.getClass();
+            CONDIMENT_NAMES[i] = sample.getCondimentName();
+        }
+    }
+
+    private Menu() {
+    }
+
+    public static int getBaseCount() {
+        return BASES.length;
+    }
+
+    public static int getCondimentCount() {
+        return CONDIMENTS.size();
+    }
+
+    public static Beverage getBase(int baseId) {
+        return BASES[baseId];
+    }
+
+    public static String getBaseDescription(int baseId) {
+        return BASES[baseId].getDescription();
+    }
+
+    public static String getCondimentName(int condimentId) {
+        return CONDIMENT_NAMES[condimentId];
+    }
+
+    // Wraps 'beverage' in the condiment with this id.
+    public static Beverage addCondiment(int condimentId, Beverage beverage) {
+        return CONDIMENTS.get(condimentId).apply(beverage);
+    }
+
+    // Id of a base beverage, or -1 if it is not on the menu.
+    public static int getBaseId(Beverage base) {
+        for (int i = 0; i < BASES.length; i++) {
+            if (BASES[i].getClass() == base.getClass()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Id of a condiment layer, or -1 if it is not on the menu.
+    public static int getCondimentId(CondimentDecorator condiment) {
+        for (int i = 0; i < CONDIMENT_TYPES.length; i++) {
+            if (CONDIMENT_TYPES[i] == condiment.getClass()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Current prices, indexed by id. A snapshot: a PriceCatalog reload
+    // afterwards does not change the returned arrays.
+    public static long[] getBaseCents() {
+        long[] cents = new long[BASES.length];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = BASES[i].costInCents();
+        }
+        return cents;
+    }
+
+    public static long[] getCondimentCents() {
+        long[] cents = new long[CONDIMENTS.size()];
+        Beverage base = BASES[0];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = ((CondimentDecorator) CONDIMENTS.get(i).apply(base)).getCondimentCents();
+        }
+        return cents;
+    }
+}
@@ -1,21 +1,28 @@
 public class Mocha extends CondimentDecorator {
-    // COMPOSITION: We hold a reference to the specific object we are wrapping.
+    // COMPOSITION: We hold a reference to the specific object we are wrapping
+    // (the 'beverage' field inherited from CondimentDecorator).
     // This could be an Espresso, or it could be ANOTHER Decorator (like another
     // Mocha).
-    Beverage beverage;
+
+    // Our row in the price table; 20 cents unless the catalog file says otherwise.
+    private static final int PRICE_ID = PriceCatalog.register("Mocha", 20);
 
     public Mocha(Beverage beverage) {
-        this.beverage = beverage;
+        super(beverage);
+    }
+
+    // DELEGATION happens in CondimentDecorator: it asks the object we are
+    // decorating for its cost (beverage.costInCents) and adds our own small
+    // part of the behavior logic (+ 20 cents by default, looked up in PriceCatalog).
+    public String getCondimentName() {
+        return "Mocha";
     }
 
-    public String getDescription() {
-        return beverage.getDescription() + ", Mocha";
+    public long getCondimentCents() {
+        return PriceCatalog.getPrice(PRICE_ID);
     }
 
-    // DELEGATION:
-    // First, we delegate the call to the object we are decorating (beverage.cost)
-    // Then, we add our own small part of the behavior logic (+ 0.20)
-    public double cost() {
-        return 0.20 + beverage.cost();
+    int getPriceId() {
+        return PRICE_ID;
     }
 }
@@ -0,0 +1,25 @@
+// Helpers for prices held as 'long' cents.
+public final class Money {
+
+    private Money() {
+    }
+
+    // 149 -> "$1.49", 5 -> "$0.05", -120 -> "-$1.20"
+    public static String format(long cents) {
+        StringBuilder out = new StringBuilder(12);
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        out.append('$').append(cents / 100).append('.');
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction).toString();
+    }
+
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+}
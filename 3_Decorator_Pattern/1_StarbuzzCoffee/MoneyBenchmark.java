@@ -0,0 +1,183 @@
+import java.math.BigDecimal;
+
+// Prices a few decorated drinks three ways:
+//   - cents   : the exact Beverage.costInCents() path (long arithmetic);
+//   - double  : a replica of the old design, where every layer adds a double;
+//   - decimal : the same replica with BigDecimal (exact, but allocates on every layer).
+//
+// Decorators memoize their cost, so pricing the same Beverage twice would
+// only time a cache hit on the cents side. Every round therefore builds
+// fresh drinks (outside the timed section) and times the FIRST price of
+// each, which walks the whole chain on all three sides.
+//
+// Run with: java MoneyBenchmark [drinks]
+public class MoneyBenchmark {
+
+    // The old double-based decorator design (one class per base and condiment,
+    // so call sites are as polymorphic as in the real hierarchy). Baseline only.
+    private abstract static class DoubleBeverage {
+        abstract double cost();
+    }
+
+    private static class DoubleDarkRoast extends DoubleBeverage {
+        double cost() {
+            return 0.99;
+        }
+    }
+
+    private static class DoubleHouseBlend extends DoubleBeverage {
+        double cost() {
+            return 0.89;
+        }
+    }
+
+    private static class DoubleEspresso extends DoubleBeverage {
+        double cost() {
+            return 1.99;
+        }
+    }
+
+    private static class DoubleMocha extends DoubleBeverage {
+        private final DoubleBeverage beverage;
+
+        DoubleMocha(DoubleBeverage beverage) {
+            this.beverage = beverage;
+        }
+
+        double cost() {
+            return 0.20 + beverage.cost();
+        }
+    }
+
+    private static class DoubleSoy extends DoubleBeverage {
+        private final DoubleBeverage beverage;
+
+        DoubleSoy(DoubleBeverage beverage) {
+            this.beverage = beverage;
+        }
+
+        double cost() {
+            return 0.15 + beverage.cost();
+        }
+    }
+
+    private static class DoubleWhip extends DoubleBeverage {
+        private final DoubleBeverage beverage;
+
+        DoubleWhip(DoubleBeverage beverage) {
+            this.beverage = beverage;
+        }
+
+        double cost() {
+            return 0.10 + beverage.cost();
+        }
+    }
+
+    private static class DecimalLayer {
+        private final BigDecimal price;
+        private final DecimalLayer inner;
+
+        DecimalLayer(String price, DecimalLayer inner) {
+            this.price = new BigDecimal(price);
+            this.inner = inner;
+        }
+
+        BigDecimal cost() {
+            return inner == null ? price : price.add(inner.cost());
+        }
+    }
+
+    public static void main(String[] args) {
+        int drinks = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long bestCents = Long.MAX_VALUE;
+        long bestDouble = Long.MAX_VALUE;
+        long bestDecimal = Long.MAX_VALUE;
+        long centsTotal = 0;
+        double doubleTotal = 0;
+        BigDecimal decimalTotal = BigDecimal.ZERO;
+
+        for (int round = 0; round < 5; round++) {
+            Beverage[] cents = new Beverage[drinks];
+            for (int i = 0; i < drinks; i++) {
+                cents[i] = centsDrink(i & 3);
+            }
+            long start = System.nanoTime();
+            centsTotal = 0;
+            for (int i = 0; i < drinks; i++) {
+                centsTotal += cents[i].costInCents();
+            }
+            bestCents = Math.min(bestCents, System.nanoTime() - start);
+            cents = null;
+
+            DoubleBeverage[] doubles = new DoubleBeverage[drinks];
+            for (int i = 0; i < drinks; i++) {
+                doubles[i] = doubleDrink(i & 3);
+            }
+            start = System.nanoTime();
+            doubleTotal = 0;
+            for (int i = 0; i < drinks; i++) {
+                doubleTotal += doubles[i].cost();
+            }
+            bestDouble = Math.min(bestDouble, System.nanoTime() - start);
+            doubles = null;
+
+            DecimalLayer[] decimals = new DecimalLayer[drinks];
+            for (int i = 0; i < drinks; i++) {
+                decimals[i] = decimalDrink(i & 3);
+            }
+            start = System.nanoTime();
+            decimalTotal = BigDecimal.ZERO;
+            for (int i = 0; i < drinks; i++) {
+                decimalTotal = decimalTotal.add(decimals[i].cost());
+            }
+            bestDecimal = Math.min(bestDecimal, System.nanoTime() - start);
+        }
+
+        System.out.printf("first price per drink: cents %.2f ns (%s), double %.2f ns (%s), decimal %.2f ns (%s)%n",
+                (double) bestCents / drinks, Money.format(centsTotal),
+                (double) bestDouble / drinks, doubleTotal,
+                (double) bestDecimal / drinks, decimalTotal.toPlainString());
+    }
+
+    private static Beverage centsDrink(int kind) {
+        switch (kind) {
+            case 0:
+                return new Whip(new Mocha(new Mocha(new DarkRoast())));
+            case 1:
+                return new Whip(new Mocha(new Soy(new HouseBlend())));
+            case 2:
+                return new Soy(new Espresso());
+            default:
+                return new Mocha(new Whip(new Soy(new Mocha(new DarkRoast()))));
+        }
+    }
+
+    private static DoubleBeverage doubleDrink(int kind) {
+        switch (kind) {
+            case 0:
+                return new DoubleWhip(new DoubleMocha(new DoubleMocha(new DoubleDarkRoast())));
+            case 1:
+                return new DoubleWhip(new DoubleMocha(new DoubleSoy(new DoubleHouseBlend())));
+            case 2:
+                return new DoubleSoy(new DoubleEspresso());
+            default:
+                return new DoubleMocha(new DoubleWhip(new DoubleSoy(new DoubleMocha(new DoubleDarkRoast()))));
+        }
+    }
+
+    private static DecimalLayer decimalDrink(int kind) {
+        switch (kind) {
+            case 0:
+                return new DecimalLayer("0.10", new DecimalLayer("0.20", new DecimalLayer("0.20",
+                        new DecimalLayer("0.99", null))));
+            case 1:
+                return new DecimalLayer("0.10", new DecimalLayer("0.20", new DecimalLayer("0.15",
+                        new DecimalLayer("0.89", null))));
+            case 2:
+                return new DecimalLayer("0.15", new DecimalLayer("1.99", null));
+            default:
+                return new DecimalLayer("0.20", new DecimalLayer("0.10", new DecimalLayer("0.15",
+                        new DecimalLayer("0.20", new DecimalLayer("0.99", null)))));
+        }
+    }
+}
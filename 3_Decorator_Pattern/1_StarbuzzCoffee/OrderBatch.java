@@ -0,0 +1,74 @@
+import java.util.Arrays;
+
+// A batch of orders in COLUMNAR form: one byte for the base id, and one byte
+// per menu condiment counting how many times it was added. 10M orders take
+// about 40 MB, versus several hundred bytes of objects per decorated drink.
+//
+// Counts are stored row by row: order i, condiment k is at i * K + k, where
+// K = Menu.getCondimentCount(). The order of condiments within a drink is not
+// kept, since it does not change the price.
+public class OrderBatch {
+    // Most of one condiment a single order can hold (counts are signed bytes).
+    public static final int MAX_CONDIMENT_COUNT = Byte.MAX_VALUE;
+
+    private final int condimentCount = Menu.getCondimentCount();
+    private final byte[] baseIds;
+    private final byte[] condimentCounts;
+    private int size;
+
+    public OrderBatch(int capacity) {
+        this.baseIds = new byte[capacity];
+        this.condimentCounts = new byte[capacity * condimentCount];
+    }
+
+    // counts[k] = how many of condiment k (0..MAX_CONDIMENT_COUNT each).
+    public void add(int baseId, int... counts) {
+        if (size == baseIds.length) {
+            throw new IllegalStateException("OrderBatch is full (" + size + " orders)");
+        }
+        if (baseId < 0 || baseId >= Menu.getBaseCount()) {
+            throw new IllegalArgumentException("Unknown base id " + baseId);
+        }
+        if (counts.length > condimentCount) {
+            throw new IllegalArgumentException("Only " + condimentCount + " condiments on the menu");
+        }
+        int row = size * condimentCount;
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] < 0 || counts[k] > MAX_CONDIMENT_COUNT) {
+                throw new IllegalArgumentException("Condiment count out of range: " + counts[k]);
+            }
+            condimentCounts[row + k] = (byte) counts[k];
+        }
+        baseIds[size++] = (byte) baseId;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return baseIds.length;
+    }
+
+    public void clear() {
+        Arrays.fill(condimentCounts, 0, size * condimentCount, (byte) 0);
+        size = 0;
+    }
+
+    public int getBaseId(int order) {
+        return baseIds[order];
+    }
+
+    public int getCondimentCount(int order, int condimentId) {
+        return condimentCounts[order * condimentCount + condimentId];
+    }
+
+    // Raw columns for BulkPricer's inner loop; do not modify.
+    byte[] getBaseIds() {
+        return baseIds;
+    }
+
+    byte[] getCondimentCounts() {
+        return condimentCounts;
+    }
+}
@@ -0,0 +1,162 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+// Compact binary form of a decorated beverage, for order queues and logs.
+//
+// Serializing a decorator chain as objects means one record per layer plus
+// class names: hundreds of bytes per drink. Since a drink is just a base plus
+// a multiset of condiments, we write:
+//
+//   [base id] [condiment mask: ceil(K / 8) bytes] [one count byte per set bit]
+//
+// where K = Menu.getCondimentCount() and bit k of the mask means "condiment k
+// is present". "Dark Roast, Mocha, Mocha, Whip" is 4 bytes: 01 05 02 01.
+// Counts are 1..OrderBatch.MAX_CONDIMENT_COUNT (127) per condiment, so every
+// record decodes into an OrderBatch as well as into a Beverage. Invalid input
+// is rejected before anything is written: a failed encode leaves no partial
+// record in the caller's buffer, and neither does a buffer without room for
+// the whole record (BufferOverflowException).
+//
+// Only decorator chains of menu items can be encoded. A CompiledBeverage
+// keeps its condiments' names and prices but not their classes, so
+// encode() rejects it with an IllegalArgumentException: encode the
+// decorated drink it was compiled from instead.
+//
+// Encoding and decoding work directly on the caller's ByteBuffer (heap,
+// direct or memory-mapped) at its position, with no intermediate byte[].
+//
+// Note: the order of condiments is not stored. A decoded drink has the same
+// price but lists its condiments in menu order.
+public class OrderCodec {
+    private static final int MASK_BYTES = (Menu.getCondimentCount() + 7) / 8;
+
+    public static int encodedSize(Beverage beverage) {
+        int present = 0;
+        for (int count : countCondiments(beverage)) {
+            if (count != 0) {
+                present++;
+            }
+        }
+        return 1 + MASK_BYTES + present;
+    }
+
+    public static void encode(Beverage beverage, ByteBuffer out) {
+        if (beverage instanceof CompiledBeverage) {
+            throw new IllegalArgumentException("Cannot encode a compiled beverage: " + beverage.getDescription());
+        }
+        Beverage base = beverage;
+        while (base instanceof CondimentDecorator) {
+            base = ((CondimentDecorator) base).beverage;
+        }
+        int baseId = Menu.getBaseId(base);
+        if (baseId < 0) {
+            throw new IllegalArgumentException("Not a menu beverage: " + base.getDescription());
+        }
+        write(baseId, countCondiments(beverage), out);
+    }
+
+    // Encodes one order of a batch without building a Beverage.
+    public static void encode(OrderBatch orders, int order, ByteBuffer out) {
+        int[] counts = new int[Menu.getCondimentCount()];
+        for (int k = 0; k < counts.length; k++) {
+            counts[k] = orders.getCondimentCount(order, k);
+        }
+        write(orders.getBaseId(order), counts, out);
+    }
+
+    public static Beverage decode(ByteBuffer in) {
+        Beverage beverage = Menu.getBase(readBaseId(in));
+        int[] counts = readCounts(in);
+        for (int k = 0; k < counts.length; k++) {
+            for (int n = counts[k]; n > 0; n--) {
+                beverage = Menu.addCondiment(k, beverage);
+            }
+        }
+        return beverage;
+    }
+
+    // Decodes straight into a columnar batch, without building a Beverage.
+    public static void decode(ByteBuffer in, OrderBatch into) {
+        int baseId = readBaseId(in);
+        into.add(baseId, readCounts(in));
+    }
+
+    private static void write(int baseId, int[] counts, ByteBuffer out) {
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] > OrderBatch.MAX_CONDIMENT_COUNT) {
+                throw new IllegalArgumentException("More than " + OrderBatch.MAX_CONDIMENT_COUNT + " "
+                        + Menu.getCondimentName(k));
+            }
+        }
+        int present = 0;
+        for (int count : counts) {
+            if (count != 0) {
+                present++;
+            }
+        }
+        if (out.remaining() < 1 + MASK_BYTES + present) {
+            throw new BufferOverflowException();
+        }
+        out.put((byte) baseId);
+        int maskStart = out.position();
+        for (int i = 0; i < MASK_BYTES; i++) {
+            out.put((byte) 0);
+        }
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] == 0) {
+                continue;
+            }
+            int maskIndex = maskStart + (k >>> 3);
+            out.put(maskIndex, (byte) (out.get(maskIndex) | (1 << (k & 7))));
+            out.put((byte) counts[k]);
+        }
+    }
+
+    // Reads the mask and the count bytes it announces.
+    private static int[] readCounts(ByteBuffer in) {
+        int condimentCount = Menu.getCondimentCount();
+        int maskStart = in.position();
+        // Bits past the last menu condiment would announce count bytes we
+        // never read, and every following record would be misaligned.
+        for (int k = condimentCount; k < MASK_BYTES * 8; k++) {
+            if ((in.get(maskStart + (k >>> 3)) & (1 << (k & 7))) != 0) {
+                throw new IllegalArgumentException("Unknown condiment id " + k);
+            }
+        }
+        in.position(maskStart + MASK_BYTES);
+        int[] counts = new int[condimentCount];
+        for (int k = 0; k < condimentCount; k++) {
+            if ((in.get(maskStart + (k >>> 3)) & (1 << (k & 7))) != 0) {
+                int count = in.get() & 0xFF;
+                if (count == 0 || count > OrderBatch.MAX_CONDIMENT_COUNT) {
+                    throw new IllegalArgumentException("Count of " + Menu.getCondimentName(k) + " out of range: " + count);
+                }
+                counts[k] = count;
+            }
+        }
+        return counts;
+    }
+
+    private static int readBaseId(ByteBuffer in) {
+        int baseId = in.get() & 0xFF;
+        if (baseId >= Menu.getBaseCount()) {
+            throw new IllegalArgumentException("Unknown base id " + baseId);
+        }
+        return baseId;
+    }
+
+    private static int[] countCondiments(Beverage beverage) {
+        int[] counts = new int[Menu.getCondimentCount()];
+        Beverage current = beverage;
+        while (current instanceof CondimentDecorator) {
+            CondimentDecorator condiment = (CondimentDecorator) current;
+            int id = Menu.getCondimentId(condiment);
+            if (id < 0) {
+                throw new IllegalArgumentException("Not a menu condiment: " + condiment.getCondimentName());
+            }
+            counts[id]++;
+            current = condiment.beverage;
+        }
+        return counts;
+    }
+}
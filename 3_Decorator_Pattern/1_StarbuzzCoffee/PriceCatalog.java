@@ -0,0 +1,175 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+// Data-driven condiment prices.
+//
+// Each condiment registers itself once and gets a small integer id. Prices
+// live in a primitive 'long[]' indexed by that id, so reading a price is one
+// volatile read plus one array load -- no map lookup, no lock.
+//
+// Reloading builds a NEW table and publishes it with a single volatile write
+// (copy-on-write). A reader sees either the old table or the new one, never a
+// half-updated mix. Every table carries a version so memoized costs (see
+// CondimentDecorator) know when to recompute.
+//
+// File format (properties, prices in cents):
+//   Mocha=20
+//   Soy=15
+//   Whip=10
+// Condiments missing from the file keep their built-in default price. A name
+// that is not a registered condiment (e.g. a typo like "Moca") is an error.
+public final class PriceCatalog {
+
+    // Immutable snapshot of all prices.
+    private static final class Table {
+        final long version;
+        final long[] cents;
+
+        Table(long version, long[] cents) {
+            this.version = version;
+            this.cents = cents;
+        }
+    }
+
+    // A cost computed against one catalog version (see CondimentDecorator).
+    static final class Quote {
+        final long version;
+        final long cents;
+
+        Quote(long version, long cents) {
+            this.version = version;
+            this.cents = cents;
+        }
+    }
+
+    private static volatile Table table = new Table(0, new long[0]);
+
+    // Writer-side state, guarded by the PriceCatalog class lock.
+    private static final List<String> names = new ArrayList<String>();
+    private static final List<Long> defaults = new ArrayList<Long>();
+    private static Map<String, Long> overrides = new HashMap<String, Long>();
+
+    private PriceCatalog() {
+    }
+
+    // Called once per condiment class (from a static initializer).
+    public static synchronized int register(String name, long defaultCents) {
+        int id = names.indexOf(name);
+        if (id >= 0) {
+            return id;
+        }
+        names.add(name);
+        defaults.add(defaultCents);
+        publish();
+        return names.size() - 1;
+    }
+
+    // The hot path: no lock, no allocation.
+    public static long getPrice(int id) {
+        return table.cents[id];
+    }
+
+    public static long getVersion() {
+        return table.version;
+    }
+
+    public static synchronized int getId(String name) {
+        return names.indexOf(name);
+    }
+
+    // Replaces all overrides with the file's contents. On any error the
+    // current prices are kept and the exception is thrown.
+    public static void load(Path file) throws IOException {
+        // Built-in condiments register when their class is initialised, and
+        // Menu initialises all of them: make sure their names are known.
+        Menu.getCondimentCount();
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        Map<String, Long> parsed = new HashMap<String, Long>();
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name).trim();
+            long cents;
+            try {
+                cents = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(file + ": price of " + name + " is not a whole number of cents: " + value);
+            }
+            if (cents < 0) {
+                throw new IllegalArgumentException(file + ": price of " + name + " is negative: " + value);
+            }
+            parsed.put(name, cents);
+        }
+        synchronized (PriceCatalog.class) {
+            for (String name : parsed.keySet()) {
+                if (!names.contains(name)) {
+                    throw new IllegalArgumentException(file + ": unknown condiment " + name + ", expected one of " + names);
+                }
+            }
+            overrides = parsed;
+            publish();
+        }
+    }
+
+    // Reloads 'file' whenever it changes, on a background daemon thread.
+    // A broken edit is reported on System.err and the previous prices stay.
+    // Close the returned handle to stop watching.
+    public static Closeable watch(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        WatchService watcher = FileSystems.getDefault().newWatchService();
+        absolute.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watcher.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (absolute.getFileName().equals(event.context())) {
+                            changed = true;
+                        }
+                    }
+                    key.reset();
+                    if (changed) {
+                        try {
+                            load(absolute);
+                        } catch (IOException | IllegalArgumentException e) {
+                            System.err.println("Price reload failed, keeping current prices: " + e.getMessage());
+                        }
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed: stop watching
+            }
+        }, "price-catalog-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    // Builds the next table and swaps it in. Caller holds the class lock.
+    private static void publish() {
+        long[] cents = new long[names.size()];
+        for (int i = 0; i < cents.length; i++) {
+            Long override = overrides.get(names.get(i));
+            cents[i] = override != null ? override : defaults.get(i);
+        }
+        table = new Table(table.version + 1, cents);
+    }
+}
@@ -0,0 +1,67 @@
+// Totals produced by BulkPricer for one OrderBatch.
+//
+// Revenue is split by component: a drink's base price counts towards its base,
+// and each condiment's price (times how many were added) towards that
+// condiment. So getTotalRevenueCents() equals the sum of both breakdowns.
+public class PricingReport {
+    private final long orderCount;
+    private final long[] ordersPerBase;
+    private final long[] revenuePerBase;
+    private final long[] unitsPerCondiment;
+    private final long[] revenuePerCondiment;
+
+    PricingReport(long orderCount, long[] ordersPerBase, long[] revenuePerBase,
+                  long[] unitsPerCondiment, long[] revenuePerCondiment) {
+        this.orderCount = orderCount;
+        this.ordersPerBase = ordersPerBase;
+        this.revenuePerBase = revenuePerBase;
+        this.unitsPerCondiment = unitsPerCondiment;
+        this.revenuePerCondiment = revenuePerCondiment;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getTotalRevenueCents() {
+        long total = 0;
+        for (long cents : revenuePerBase) {
+            total += cents;
+        }
+        for (long cents : revenuePerCondiment) {
+            total += cents;
+        }
+        return total;
+    }
+
+    public long getOrdersForBase(int baseId) {
+        return ordersPerBase[baseId];
+    }
+
+    public long getRevenueForBase(int baseId) {
+        return revenuePerBase[baseId];
+    }
+
+    public long getUnitsForCondiment(int condimentId) {
+        return unitsPerCondiment[condimentId];
+    }
+
+    public long getRevenueForCondiment(int condimentId) {
+        return revenuePerCondiment[condimentId];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(orderCount).append(" orders, revenue ").append(Money.format(getTotalRevenueCents())).append('\n');
+        for (int i = 0; i < revenuePerBase.length; i++) {
+            out.append("  ").append(Menu.getBaseDescription(i)).append(": ").append(ordersPerBase[i])
+                    .append(" orders, ").append(Money.format(revenuePerBase[i])).append('\n');
+        }
+        for (int k = 0; k < revenuePerCondiment.length; k++) {
+            out.append("  ").append(Menu.getCondimentName(k)).append(": ").append(unitsPerCondiment[k])
+                    .append(" added, ").append(Money.format(revenuePerCondiment[k])).append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -1,15 +1,20 @@
 public class Soy extends CondimentDecorator {
-    Beverage beverage;
-    
+    // Our row in the price table; 15 cents unless the catalog file says otherwise.
+    private static final int PRICE_ID = PriceCatalog.register("Soy", 15);
+
     public Soy(Beverage beverage) {
-        this.beverage = beverage;
+        super(beverage);
     }
-    
-    public String getDescription() {
-        return beverage.getDescription() + ", Soy";
+
+    public String getCondimentName() {
+        return "Soy";
     }
-    
-    public double cost() {
-        return 0.15 + beverage.cost();
+
+    public long getCondimentCents() {
+        return PriceCatalog.getPrice(PRICE_ID);
+    }
+
+    int getPriceId() {
+        return PRICE_ID;
     }
 }
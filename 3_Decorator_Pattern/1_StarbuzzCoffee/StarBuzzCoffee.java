@@ -1,19 +1,30 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 public class StarBuzzCoffee {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // Condiment prices come from this file when it is present (run from this directory).
+        Path prices = Paths.get("condiment-prices.properties");
+        if (Files.exists(prices)) {
+            PriceCatalog.load(prices);
+        }
+
         Beverage beverage = new Espresso();
-        System.out.println(beverage.getDescription() + " $" + beverage.cost());
+        System.out.println(beverage.getDescription() + " " + Money.format(beverage.costInCents()));
 
         Beverage beverage2 = new DarkRoast();
         beverage2 = new Mocha(beverage2);
         beverage2 = new Mocha(beverage2);
         beverage2 = new Whip(beverage2);
-        System.out.println(beverage2.getDescription() + " $" + beverage2.cost());
+        System.out.println(beverage2.getDescription() + " " + Money.format(beverage2.costInCents()));
 
         Beverage beverage3 = new HouseBlend();
         beverage3 = new Soy(beverage3);
         beverage3 = new Mocha(beverage3);
         beverage3 = new Whip(beverage3);
-        System.out.println(beverage3.getDescription() + " $" + beverage3.cost());
+        System.out.println(beverage3.getDescription() + " " + Money.format(beverage3.costInCents()));
 
     }
 }
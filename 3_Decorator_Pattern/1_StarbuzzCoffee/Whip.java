@@ -1,15 +1,20 @@
 public class Whip extends CondimentDecorator {
-    Beverage beverage;
-    
+    // Our row in the price table; 10 cents unless the catalog file says otherwise.
+    private static final int PRICE_ID = PriceCatalog.register("Whip", 10);
+
     public Whip(Beverage beverage) {
-        this.beverage = beverage;
+        super(beverage);
     }
-    
-    public String getDescription() {
-        return beverage.getDescription() + ", Whip";
+
+    public String getCondimentName() {
+        return "Whip";
     }
-    
-    public double cost() {
-        return 0.10 + beverage.cost();
+
+    public long getCondimentCents() {
+        return PriceCatalog.getPrice(PRICE_ID);
+    }
+
+    int getPriceId() {
+        return PRICE_ID;
     }
 }
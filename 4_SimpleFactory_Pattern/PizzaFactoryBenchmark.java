@@ -0,0 +1,92 @@
+import java.util.function.Supplier;
+
+// Cost per createPizza() as the menu grows from 3 to 500 types, two ways:
+//   - if-chain: the old "type.equals(...)" chain, one comparison per type
+//               until the right one (replayed here with a loop, since nobody
+//               writes 500 if/else branches by hand);
+//   - registry: SimplePizzaFactory's map of constructor references.
+// Orders cycle through every type on the menu, so the chain's average cost is
+// half its length. Both sides build the same pizza, so the allocation cancels
+// out and the difference is the lookup.
+//
+// Run with: java PizzaFactoryBenchmark [orders]
+public class PizzaFactoryBenchmark {
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int[] menuSizes = {3, 10, 100, 500};
+        long[][] best = new long[menuSizes.length][2];
+        for (int round = 0; round < 5; round++) {
+            for (int m = 0; m < menuSizes.length; m++) {
+                String[] types = new String[menuSizes[m]];
+                Supplier<Pizza>[] constructors = newSuppliers(types.length);
+                SimplePizzaFactory factory = new SimplePizzaFactory();
+                for (int t = 0; t < types.length; t++) {
+                    // new String(): the orders must not be the very objects that
+                    // were registered, or equals() would short-cut on identity.
+                    types[t] = "special-" + t;
+                    String name = types[t];
+                    constructors[t] = () -> new MenuPizza(name);
+                    factory.register(new String(types[t]), constructors[t]);
+                }
+                long chainNanos = timeChain(types, constructors, orders);
+                long registryNanos = timeRegistry(factory, types, orders);
+                best[m][0] = round == 0 ? chainNanos : Math.min(best[m][0], chainNanos);
+                best[m][1] = round == 0 ? registryNanos : Math.min(best[m][1], registryNanos);
+            }
+        }
+        for (int m = 0; m < menuSizes.length; m++) {
+            System.out.printf("%3d types: if-chain %7.2f ns/order, registry %6.2f ns/order, speedup %.1fx%n",
+                    menuSizes[m], (double) best[m][0] / orders, (double) best[m][1] / orders,
+                    (double) best[m][0] / best[m][1]);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Supplier<Pizza>[] newSuppliers(int n) {
+        return (Supplier<Pizza>[]) new Supplier[n];
+    }
+
+    private static long timeChain(String[] types, Supplier<Pizza>[] constructors, int orders) {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            String type = types[i % types.length];
+            Pizza pizza = null;
+            for (int t = 0; t < types.length; t++) {
+                if (type.equals(types[t])) {
+                    pizza = constructors[t].get();
+                    break;
+                }
+            }
+            checksum += pizza.getName().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(checksum);
+        return elapsed;
+    }
+
+    private static long timeRegistry(SimplePizzaFactory factory, String[] types, int orders) {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            checksum += factory.createPizza(types[i % types.length]).getName().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(checksum);
+        return elapsed;
+    }
+
+    // Keeps the JIT from dropping the loops as dead code.
+    private static void consume(long checksum) {
+        if (checksum == 42) {
+            System.out.println();
+        }
+    }
+
+    private static final class MenuPizza extends Pizza {
+        MenuPizza(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+// Service Provider Interface for adding pizzas from another module or jar.
+//
+// Implement it, then list the implementing class in
+//   META-INF/services/PizzaProvider
+// on the classpath. Every SimplePizzaFactory calls registerPizzas() once, in
+// its constructor:
+//
+//   public class SeasonalPizzas implements PizzaProvider {
+//       public void registerPizzas(SimplePizzaFactory factory) {
+//           factory.register("pumpkin", PumpkinPizza::new);
+//       }
+//   }
+public interface PizzaProvider {
+    void registerPizzas(SimplePizzaFactory factory);
+}
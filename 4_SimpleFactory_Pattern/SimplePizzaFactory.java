@@ -1,17 +1,55 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
 // Factory - The class that encapsulates the object creation logic
+//
+// Instead of an if/else chain (one more string comparison per order for every
+// new pizza), each type is REGISTERED once with a constructor reference. An
+// order is then a single hash lookup, however big the menu gets (a String
+// caches its hash code, so the lookup does not even re-hash the type).
+//
+// New pizzas can be added without touching this class:
+//   factory.register("hawaiian", HawaiianPizza::new);
+// or by shipping a PizzaProvider (see PizzaProvider for the ServiceLoader SPI).
 public class SimplePizzaFactory {
 
+    // Copy-on-write: lookups read a stable map without locking, and
+    // registrations (rare, mostly at startup) publish a new copy.
+    private volatile Map<String, Supplier<? extends Pizza>> registry = new HashMap<String, Supplier<? extends Pizza>>();
+
+    public SimplePizzaFactory() {
+        register("cheese", CheesePizza::new);
+        register("pepperoni", PepperoniPizza::new);
+        register("veggie", VeggiePizza::new);
+        for (PizzaProvider provider : ServiceLoader.load(PizzaProvider.class)) {
+            provider.registerPizzas(this);
+        }
+    }
+
+    public synchronized void register(String type, Supplier<? extends Pizza> constructor) {
+        if (registry.containsKey(type)) {
+            throw new IllegalArgumentException("Pizza type '" + type + "' is already registered");
+        }
+        Map<String, Supplier<? extends Pizza>> copy = new HashMap<String, Supplier<? extends Pizza>>(registry);
+        copy.put(type, constructor);
+        registry = copy;
+    }
+
     // This method handles the mechanics of creating the correct object
     public Pizza createPizza(String type) {
-        Pizza pizza = null;
-
-        if (type.equals("cheese")) {
-            pizza = new CheesePizza();
-        } else if (type.equals("pepperoni")) {
-            pizza = new PepperoniPizza();
-        } else if (type.equals("veggie")) {
-            pizza = new VeggiePizza();
+        Supplier<? extends Pizza> constructor = registry.get(type);
+        if (constructor == null) {
+            // Fail fast here, rather than with a NullPointerException later in PizzaStore.
+            throw new IllegalArgumentException("Unknown pizza type '" + type + "', expected one of " + getTypes());
         }
-        return pizza;
+        return constructor.get();
+    }
+
+    public Set<String> getTypes() {
+        return new TreeSet<String>(registry.keySet());
     }
 }